@@ -0,0 +1,33 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.transport.HttpClientMoviesTransport;
+import com.learnwiremock.transport.MoviesTransport;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds {@link MoviesRestClient}s for thread-per-request services on JDK 21+: calls run on the caller's (virtual)
+ * thread over {@link HttpClientMoviesTransport}, and batch lookups and bulk mutations fan out on a virtual thread
+ * per request, so high concurrency costs neither platform threads nor a reactive rewrite.
+ */
+public final class VirtualThreadMoviesClientFactory {
+
+    private VirtualThreadMoviesClientFactory() {
+    }
+
+    public static MoviesRestClient moviesRestClient(String baseUrl) {
+        return moviesRestClient(new HttpClientMoviesTransport(baseUrl));
+    }
+
+    public static MoviesRestClient moviesRestClient(MoviesTransport transport) {
+        return new MoviesRestClient(transport, VirtualThreadMoviesClientFactory::newFanOutExecutor);
+    }
+
+    /**
+     * A virtual thread per submitted task; cheap enough to create for every fan-out and close when it is done.
+     */
+    public static ExecutorService newFanOutExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -0,0 +1,60 @@
+package com.learnwiremock.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * {@link MoviesTransport} on the JDK's {@link HttpClient}. {@link HttpClient#send} parks the calling thread without
+ * holding a monitor, so a virtual thread waiting for a response releases its carrier. Connections are pooled and
+ * kept alive by the client; requests use HTTP/1.1, which the movie service speaks.
+ */
+public final class HttpClientMoviesTransport implements MoviesTransport {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    public HttpClientMoviesTransport(String baseUrl) {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build(), baseUrl, REQUEST_TIMEOUT);
+    }
+
+    public HttpClientMoviesTransport(HttpClient httpClient, String baseUrl, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public Response exchange(Request request) throws IOException {
+        HttpRequest.Builder httpRequest = HttpRequest.newBuilder(URI.create(baseUrl + request.getUri()))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json");
+        if (request.getBody() != null) {
+            httpRequest.header("Content-Type", "application/json")
+                    .method(request.getMethod(), HttpRequest.BodyPublishers.ofByteArray(request.getBody()));
+        } else {
+            httpRequest.method(request.getMethod(), HttpRequest.BodyPublishers.noBody());
+        }
+        try {
+            HttpResponse<InputStream> response = httpClient.send(httpRequest.build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            return new Response(response.statusCode(), response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted waiting for " + request.getUri());
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.BulkMutationSummary;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.dto.MovieMutation;
+import com.learnwiremock.exception.MovieErrorResponse;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class VirtualThreadMoviesRestClientTest {
+
+    MoviesRestClient moviesRestClient;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @BeforeEach
+    void setUp() {
+        moviesRestClient = VirtualThreadMoviesClientFactory.moviesRestClient(
+                String.format("http://localhost:%s", wireMockServer.port()));
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie-by-id-template.json")));
+    }
+
+    @Test
+    void shouldServeConcurrentCallersOnVirtualThreadsWithoutPinning() throws Exception {
+        //given
+        AtomicInteger pinned = new AtomicInteger();
+        List<Future<Movie>> lookups = new ArrayList<>();
+
+        //when
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+            recording.startAsync();
+            try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int movieId = 1; movieId <= 500; movieId++) {
+                    int id = movieId;
+                    lookups.add(callers.submit(() -> moviesRestClient.retrieveMovieById(id)));
+                }
+            }
+            recording.stop();
+        }
+
+        //then
+        for (int index = 0; index < lookups.size(); index++) {
+            assertEquals(index + 1L, lookups.get(index).get().getMovie_id());
+        }
+        assertEquals(0, pinned.get());
+    }
+
+    @Test
+    void shouldMapErrorsLikeTheReactiveClient() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "100")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("movie-by-id-not-found.json")));
+        MoviesRestClient unreachable = VirtualThreadMoviesClientFactory.moviesRestClient("http://localhost:1");
+
+        //when
+        MovieErrorResponse notFound = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+        MovieErrorResponse connectionFailure = assertThrows(MovieErrorResponse.class, () -> unreachable.retrieveMovieById(1));
+
+        //then
+        assertTrue(notFound.isNotFound());
+        assertEquals("Not Found", notFound.getMessage());
+        assertEquals(0, connectionFailure.getStatusCode());
+    }
+
+    @Test
+    void shouldStreamAllMoviesAndBuildTheCatalog() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+
+        //when
+        List<Movie> movies = moviesRestClient.retrieveAllMovies();
+
+        //then
+        assertEquals(10, movies.size());
+        assertEquals("Batman Begins", movies.get(0).getName());
+        assertEquals(movies, moviesRestClient.retrieveMovieCatalog().asList());
+    }
+
+    @Test
+    void shouldFanOutBatchLookupsAndTimeOutStragglers() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "100")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("movie-by-id-not-found.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "42")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(2000)
+                        .withBodyFile("movie-by-id-template.json")));
+
+        //when
+        List<MovieLookupResult> results = moviesRestClient.retrieveMoviesByIds(Arrays.asList(3, 100, 42, 2), 4,
+                Duration.ofMillis(500));
+
+        //then
+        assertEquals(3L, results.get(0).getMovie().getMovie_id());
+        assertEquals(MovieLookupResult.Status.NOT_FOUND, results.get(1).getStatus());
+        assertEquals(MovieLookupResult.Status.TIMED_OUT, results.get(2).getStatus());
+        assertEquals(2L, results.get(3).getMovie().getMovie_id());
+    }
+
+    @Test
+    void shouldApplyBulkMutationsWithRetries() {
+        //given
+        stubFor(put(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("edited-movie.json")));
+        stubFor(delete(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .inScenario("flaky delete")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willSetStateTo("recovered")
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+        stubFor(delete(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .inScenario("flaky delete")
+                .whenScenarioStateIs("recovered")
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withBody("Movie deleted successfully")));
+        BulkMutationSettings settings = BulkMutationSettings.builder().window(4).firstBackoff(Duration.ofMillis(10)).build();
+
+        //when
+        BulkMutationSummary summary = moviesRestClient.applyMutations(Stream.of(
+                MovieMutation.edit(11, new Movie(null, null, null, "Hugh Laurie", null)),
+                MovieMutation.delete(7)), settings);
+
+        //then
+        assertEquals(2, summary.getSucceeded());
+        assertEquals(0, summary.getFailed());
+        verify(2, deleteRequestedFor(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "7"))));
+    }
+}
@@ -0,0 +1,64 @@
+package com.learnwiremock.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.service.MoviesRestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code retrieveAllMovies} against synthetic catalogs scaled up from {@code all-movies.json}, materialized as a
+ * list versus consumed as a stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g", "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn"})
+public class AllMoviesBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private WireMockServer wireMockServer;
+    private MoviesRestClient moviesRestClient;
+
+    @Setup(Level.Trial)
+    public void startMovieService() throws IOException {
+        wireMockServer = MovieServiceStub.start();
+        MovieServiceStub.stubCatalog(wireMockServer, catalogSize);
+        moviesRestClient = MovieServiceStub.client(wireMockServer, "tuned");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopMovieService() {
+        wireMockServer.stop();
+    }
+
+    @Benchmark
+    public List<Movie> collectAllMovies() {
+        return moviesRestClient.retrieveAllMovies();
+    }
+
+    @Benchmark
+    public void streamAllMovies(Blackhole blackhole) {
+        moviesRestClient.retrieveAllMovies(blackhole::consume);
+    }
+}
@@ -0,0 +1,73 @@
+package com.learnwiremock.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.service.MoviesRestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Looking up a page worth of ids: one blocking call per id versus {@code retrieveMoviesByIds}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class BatchLookupBenchmark {
+
+    @Param({"50", "500"})
+    public int batchSize;
+
+    @Param({"16"})
+    public int maxConcurrency;
+
+    private WireMockServer wireMockServer;
+    private MoviesRestClient moviesRestClient;
+    private List<Integer> movieIds;
+
+    @Setup(Level.Trial)
+    public void startMovieService() {
+        wireMockServer = MovieServiceStub.start();
+        moviesRestClient = MovieServiceStub.client(wireMockServer, "tuned");
+        movieIds = IntStream.rangeClosed(1, batchSize).boxed().collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopMovieService() {
+        wireMockServer.stop();
+    }
+
+    @Benchmark
+    public List<Movie> sequentialLookups() {
+        List<Movie> movies = new ArrayList<>(movieIds.size());
+        for (Integer movieId : movieIds) {
+            movies.add(moviesRestClient.retrieveMovieById(movieId));
+        }
+        return movies;
+    }
+
+    @Benchmark
+    public List<MovieLookupResult> batchLookup() {
+        return moviesRestClient.retrieveMoviesByIds(movieIds, maxConcurrency);
+    }
+}
@@ -0,0 +1,10 @@
+package com.learnwiremock.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Every operation driven by 32 blocking callers sharing one client and its connection pool.
+ */
+@Threads(32)
+public class ConcurrentCallsBenchmark extends MovieOperationsBenchmark {
+}
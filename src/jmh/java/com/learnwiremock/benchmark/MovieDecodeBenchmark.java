@@ -0,0 +1,85 @@
+package com.learnwiremock.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.learnwiremock.codec.MovieCodecs;
+import com.learnwiremock.dto.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a catalog response with Spring's default {@link ObjectMapper} versus {@link MovieCodecs}, both directly
+ * and through {@link Jackson2JsonDecoder} over 8 KB buffers as WebClient does. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm} divided by {@code catalogSize} for the bytes allocated per movie.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class MovieDecodeBenchmark {
+    private static final int BUFFER_SIZE = 8192;
+
+    @Param({"default", "movie"})
+    public String codec;
+
+    @Param({"1000"})
+    public int catalogSize;
+
+    private byte[] json;
+    private ObjectReader movieListReader;
+    private Jackson2JsonDecoder decoder;
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        json = MovieServiceStub.catalogJson(catalogSize);
+        ObjectMapper objectMapper = "movie".equals(codec)
+                ? MovieCodecs.objectMapper()
+                : Jackson2ObjectMapperBuilder.json().build();
+        movieListReader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Movie.class));
+        decoder = new Jackson2JsonDecoder(objectMapper);
+    }
+
+    @Benchmark
+    public List<Movie> readList() throws IOException {
+        return movieListReader.readValue(json);
+    }
+
+    @Benchmark
+    public List<Object> decodeDataBuffers() {
+        return decoder.decode(Flux.range(0, (json.length + BUFFER_SIZE - 1) / BUFFER_SIZE).map(this::chunk),
+                ResolvableType.forClass(Movie.class), MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .collectList()
+                .block();
+    }
+
+    private DataBuffer chunk(int index) {
+        int offset = index * BUFFER_SIZE;
+        DataBuffer buffer = bufferFactory.allocateBuffer(BUFFER_SIZE);
+        return buffer.write(json, offset, Math.min(BUFFER_SIZE, json.length - offset));
+    }
+}
@@ -0,0 +1,103 @@
+package com.learnwiremock.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.service.MoviesRestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per client operation. Throughput mode reports ops/ms and sample-time mode the latency
+ * distribution (p50, p99, ...); run with {@code -prof gc} for the allocation rate per operation.
+ * The subclasses pick the number of calling threads.
+ * <p>
+ * WireMock runs in the benchmark JVM, so absolute allocation figures include the server's share; compare runs of
+ * the same benchmark across versions rather than reading them in isolation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public abstract class MovieOperationsBenchmark {
+
+    @Param({"default", "tuned", "uncoalesced", "webclient", "netty"})
+    public String transport;
+
+    private WireMockServer wireMockServer;
+    private MoviesRestClient moviesRestClient;
+    private final Movie newMovie = new Movie(null, "The Best Exotic Marigold Hotel", 2012,
+            "Dev Patel, Maggie Smith, Judi Dench", LocalDate.of(2012, 2, 24));
+
+    @Setup(Level.Trial)
+    public void startMovieService() {
+        wireMockServer = MovieServiceStub.start();
+        moviesRestClient = MovieServiceStub.client(wireMockServer, transport);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopMovieService() {
+        wireMockServer.stop();
+    }
+
+    @Benchmark
+    public List<Movie> retrieveAllMovies() {
+        return moviesRestClient.retrieveAllMovies();
+    }
+
+    @Benchmark
+    public Movie retrieveMovieById() {
+        return moviesRestClient.retrieveMovieById(randomMovieId());
+    }
+
+    @Benchmark
+    public List<Movie> retrieveMoviesByName() {
+        return moviesRestClient.retrieveMoviesByName("Avengers");
+    }
+
+    @Benchmark
+    public List<Movie> retrieveMoviesByYear() {
+        return moviesRestClient.retrieveMoviesByYear(2000 + ThreadLocalRandom.current().nextInt(20));
+    }
+
+    @Benchmark
+    public Movie addMovie() {
+        return moviesRestClient.addMovie(newMovie);
+    }
+
+    @Benchmark
+    public Movie editMovie() {
+        return moviesRestClient.editMovie(randomMovieId(), newMovie);
+    }
+
+    @Benchmark
+    public String deleteMovie() {
+        return moviesRestClient.deleteMovie(randomMovieId());
+    }
+
+    @Benchmark
+    public String deleteMovieByName() {
+        return moviesRestClient.deleteMovieByName("The Best Exotic Marigold Hotel");
+    }
+
+    private static int randomMovieId() {
+        return 1 + ThreadLocalRandom.current().nextInt(1000);
+    }
+}
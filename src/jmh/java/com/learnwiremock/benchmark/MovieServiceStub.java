@@ -0,0 +1,125 @@
+package com.learnwiremock.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.service.MoviesRestClient;
+import com.learnwiremock.service.MoviesWebClientFactory;
+import com.learnwiremock.service.MoviesWebClientSettings;
+import com.learnwiremock.service.ReactiveMoviesRestClient;
+import com.learnwiremock.transport.NettyMoviesTransport;
+import com.learnwiremock.transport.WebClientMoviesTransport;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Local movie service for the benchmarks, stubbed with the same {@code __files} fixtures as the unit tests.
+ */
+final class MovieServiceStub {
+    private static final String FIXTURES = "src/test/resources";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private MovieServiceStub() {
+    }
+
+    static WireMockServer start() {
+        WireMockServer wireMockServer = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .containerThreads(64)
+                .usingFilesUnderDirectory(FIXTURES)
+                .extensions(new ResponseTemplateTransformer(true)));
+        wireMockServer.start();
+        stubOperations(wireMockServer);
+        return wireMockServer;
+    }
+
+    /**
+     * {@code default} and {@code tuned} are the reactive client on a plain and a tuned WebClient; {@code webclient}
+     * and {@code netty} put the blocking client on a {@link com.learnwiremock.transport.MoviesTransport}, without
+     * interceptors or coalescing, so {@code uncoalesced}, the reactive client on the same tuned WebClient with neither,
+     * is the baseline to compare them with.
+     */
+    static MoviesRestClient client(WireMockServer wireMockServer, String transport) {
+        String baseUrl = "http://localhost:" + wireMockServer.port();
+        switch (transport) {
+            case "tuned":
+                return MoviesWebClientFactory.moviesRestClient(baseUrl);
+            case "uncoalesced":
+                return new MoviesRestClient(new ReactiveMoviesRestClient(
+                        MoviesWebClientFactory.webClient(baseUrl, MoviesWebClientSettings.defaults()), false));
+            case "webclient":
+                return new MoviesRestClient(new WebClientMoviesTransport(
+                        MoviesWebClientFactory.webClient(baseUrl, MoviesWebClientSettings.defaults())));
+            case "netty":
+                return new MoviesRestClient(new NettyMoviesTransport(baseUrl));
+            default:
+                return new MoviesRestClient(WebClient.create(baseUrl));
+        }
+    }
+
+    /**
+     * Replaces the all-movies stub with a catalog of {@code size} movies.
+     */
+    static void stubCatalog(WireMockServer wireMockServer, int size) throws IOException {
+        wireMockServer.stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1))
+                .willReturn(jsonResponse().withBody(catalogJson(size))));
+    }
+
+    /**
+     * The JSON body of a catalog of {@code size} movies, cycling through {@code all-movies.json} with fresh ids.
+     */
+    static byte[] catalogJson(int size) throws IOException {
+        List<Map<String, Object>> fixture = MAPPER.readValue(new File(FIXTURES, "__files/all-movies.json"),
+                new TypeReference<List<Map<String, Object>>>() {
+                });
+        List<Map<String, Object>> catalog = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            Map<String, Object> movie = new LinkedHashMap<>(fixture.get(index % fixture.size()));
+            movie.put("movie_id", index + 1);
+            catalog.add(movie);
+        }
+        return MAPPER.writeValueAsBytes(catalog);
+    }
+
+    private static void stubOperations(WireMockServer wireMockServer) {
+        String movieByIdPattern = MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+");
+        wireMockServer.stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1))
+                .willReturn(jsonResponse().withBodyFile("all-movies.json")));
+        wireMockServer.stubFor(get(urlPathMatching(movieByIdPattern))
+                .willReturn(jsonResponse().withBodyFile("movie-by-id-template.json")));
+        wireMockServer.stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1))
+                .willReturn(jsonResponse().withBodyFile("movies-by-name-avengers.json")));
+        wireMockServer.stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1))
+                .willReturn(jsonResponse().withBodyFile("movies-by-year-template.json")));
+        wireMockServer.stubFor(post(urlEqualTo(MoviesAppConstants.ADD_MOVIE_V1))
+                .willReturn(jsonResponse().withBodyFile("add-movie.json")));
+        wireMockServer.stubFor(put(urlPathMatching(movieByIdPattern))
+                .willReturn(jsonResponse().withBodyFile("edited-movie.json")));
+        wireMockServer.stubFor(delete(urlPathMatching(movieByIdPattern))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK.value()).withBody("Movie deleted successfully")));
+        wireMockServer.stubFor(delete(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK.value())));
+    }
+
+    private static ResponseDefinitionBuilder jsonResponse() {
+        return WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    }
+}
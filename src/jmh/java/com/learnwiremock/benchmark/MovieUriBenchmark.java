@@ -0,0 +1,53 @@
+package com.learnwiremock.benchmark;
+
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.service.MovieUriTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the request URI of a name lookup as the client used to, with a {@code UriComponentsBuilder} per call that
+ * WebClient then expands again against its base URL, versus a {@link MovieUriTemplate} expansion resolved against
+ * the base URL with {@link URI#create}. Run with {@code -prof gc} for the bytes allocated per URI.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieUriBenchmark {
+    private static final String BASE_URL = "http://localhost:8081";
+
+    @Param({"Avengers", "The Best Exotic Marigold Hotel"})
+    public String movieName;
+
+    private final DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory(BASE_URL);
+
+    @Benchmark
+    public URI uriComponentsBuilder() {
+        String uri = UriComponentsBuilder.fromUriString(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1)
+                .queryParam("movie_name", movieName)
+                .buildAndExpand()
+                .toUriString();
+        return uriBuilderFactory.expand(uri);
+    }
+
+    @Benchmark
+    public URI uriTemplate() {
+        return URI.create(BASE_URL + MovieUriTemplate.MOVIES_BY_NAME.expand(movieName));
+    }
+}
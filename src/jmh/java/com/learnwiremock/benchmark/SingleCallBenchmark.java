@@ -0,0 +1,10 @@
+package com.learnwiremock.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Every operation driven by one caller at a time: the per-call cost without contention.
+ */
+@Threads(1)
+public class SingleCallBenchmark extends MovieOperationsBenchmark {
+}
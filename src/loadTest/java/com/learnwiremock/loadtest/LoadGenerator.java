@@ -0,0 +1,112 @@
+package com.learnwiremock.loadtest;
+
+import com.learnwiremock.service.MovieOperation;
+import com.learnwiremock.service.ReactiveMoviesRestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives a {@link ReactiveMoviesRestClient} as a {@link LoadProfile} says, in a closed or an open loop, and collects
+ * the outcomes in a {@link LoadResult}. Lookups use random ids, years and names so that request coalescing only
+ * merges calls that would also coincide in production.
+ */
+final class LoadGenerator {
+    private static final String[] MOVIE_NAMES = {"Avengers", "The Dark Knight", "Toy Story", "Up", "Inception"};
+
+    private final LoadProfile profile;
+    private final ReactiveMoviesRestClient client;
+    private final MovieOperation[] operations;
+    private final int[] cumulativeWeights;
+
+    LoadGenerator(LoadProfile profile, ReactiveMoviesRestClient client) {
+        this.profile = profile;
+        this.client = client;
+        this.operations = new MovieOperation[profile.getOperationMix().size()];
+        this.cumulativeWeights = new int[operations.length];
+        int index = 0;
+        int total = 0;
+        for (Map.Entry<MovieOperation, Integer> entry : profile.getOperationMix().entrySet()) {
+            total += entry.getValue();
+            operations[index] = entry.getKey();
+            cumulativeWeights[index++] = total;
+        }
+    }
+
+    LoadResult run() {
+        long start = System.nanoTime();
+        long measureFrom = start + profile.getWarmup().toNanos();
+        long end = measureFrom + profile.getDuration().toNanos();
+        LoadResult result = new LoadResult(profile, measureFrom);
+        Flux<Void> calls = profile.getRatePerSecond() > 0
+                ? openLoop(start, end, result)
+                : closedLoop(end, result);
+        calls.then().block();
+        return result;
+    }
+
+    private Flux<Void> closedLoop(long end, LoadResult result) {
+        return Flux.range(0, profile.getConcurrency())
+                .flatMap(caller -> Mono.defer(() -> call(System.nanoTime(), result))
+                        .repeat(() -> System.nanoTime() - end < 0), profile.getConcurrency());
+    }
+
+    private Flux<Void> openLoop(long start, long end, LoadResult result) {
+        long periodNanos = Duration.ofSeconds(1).toNanos() / profile.getRatePerSecond();
+        return Flux.interval(Duration.ofNanos(periodNanos))
+                .map(tick -> start + (tick + 1) * periodNanos)
+                .takeWhile(due -> due - end < 0)
+                .onBackpressureBuffer()
+                .flatMap(due -> call(due, result), profile.getConcurrency());
+    }
+
+    private Mono<Void> call(long dueNanos, LoadResult result) {
+        MovieOperation operation = nextOperation();
+        result.started();
+        return exchange(operation)
+                .then(Mono.fromRunnable(() -> result.succeeded(operation, dueNanos)))
+                .onErrorResume(e -> {
+                    result.failed(operation, dueNanos, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<?> exchange(MovieOperation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case RETRIEVE_MOVIE_BY_ID:
+                return client.retrieveMovieById(nextMovieId(random));
+            case RETRIEVE_MOVIES_BY_YEAR:
+                return client.retrieveMoviesByYear(1950 + random.nextInt(70)).collectList();
+            case RETRIEVE_MOVIES_BY_NAME:
+                return client.retrieveMoviesByName(MOVIE_NAMES[random.nextInt(MOVIE_NAMES.length)]).collectList();
+            default:
+                return Mono.error(new IllegalArgumentException("No load for " + operation.operationName()));
+        }
+    }
+
+    private int nextMovieId(ThreadLocalRandom random) {
+        double draw = random.nextDouble();
+        if (draw < profile.getFaultRatio()) {
+            return LoadStubs.FAULTY_IDS + random.nextInt(100_000);
+        }
+        if (draw < profile.getFaultRatio() + profile.getErrorRatio()) {
+            return LoadStubs.FAILING_IDS + random.nextInt(100_000);
+        }
+        return 1 + random.nextInt(99_999);
+    }
+
+    private MovieOperation nextOperation() {
+        int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int index = 0; index < cumulativeWeights.length; index++) {
+            if (draw < cumulativeWeights[index]) {
+                return operations[index];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
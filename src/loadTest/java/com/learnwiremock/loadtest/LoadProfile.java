@@ -0,0 +1,105 @@
+package com.learnwiremock.loadtest;
+
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.learnwiremock.service.MovieOperation;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * How a load test drives the client and how the stubbed movie service behaves.
+ * <ul>
+ * <li>Closed loop ({@code ratePerSecond} 0): {@code concurrency} callers each start their next call as soon as the
+ * previous one completes.</li>
+ * <li>Open loop: calls are started at {@code ratePerSecond} whatever the client's latency, with at most
+ * {@code concurrency} in flight; the rest queue, and their latency counts from when they were due.</li>
+ * </ul>
+ * The service answers after a log-normal delay with median {@code medianDelay} and shape {@code delaySigma}, or
+ * exactly {@code medianDelay} if {@code delaySigma} is 0. A {@code faultRatio} share of id lookups is answered with
+ * {@code fault} and an {@code errorRatio} share with a 503.
+ * <p>
+ * Any setting can be overridden with a {@code loadtest.<setting>} system property, which {@code ./gradlew loadTest}
+ * passes on from {@code -Ploadtest.<setting>=...}; durations are written as {@code 500ms}, {@code 30s} or in ISO-8601.
+ */
+@Value
+@Builder(toBuilder = true)
+public class LoadProfile {
+    String name;
+    @Builder.Default
+    int concurrency = 100;
+    @Builder.Default
+    int ratePerSecond = 0;
+    @Builder.Default
+    Duration warmup = Duration.ofSeconds(2);
+    @Builder.Default
+    Duration duration = Duration.ofSeconds(10);
+    @Builder.Default
+    Duration medianDelay = Duration.ZERO;
+    @Builder.Default
+    double delaySigma = 0;
+    @Builder.Default
+    double faultRatio = 0;
+    @Builder.Default
+    Fault fault = Fault.CONNECTION_RESET_BY_PEER;
+    @Builder.Default
+    double errorRatio = 0;
+    @Builder.Default
+    Map<MovieOperation, Integer> operationMix = defaultMix();
+
+    /**
+     * This profile with the {@code loadtest.*} system property overrides applied.
+     */
+    public LoadProfile withOverrides() {
+        LoadProfileBuilder builder = toBuilder();
+        integer("concurrency").ifPresent(builder::concurrency);
+        integer("ratePerSecond").ifPresent(builder::ratePerSecond);
+        duration("warmup").ifPresent(builder::warmup);
+        duration("duration").ifPresent(builder::duration);
+        duration("medianDelay").ifPresent(builder::medianDelay);
+        decimal("delaySigma").ifPresent(builder::delaySigma);
+        decimal("faultRatio").ifPresent(builder::faultRatio);
+        property("fault").map(Fault::valueOf).ifPresent(builder::fault);
+        decimal("errorRatio").ifPresent(builder::errorRatio);
+        return builder.build();
+    }
+
+    private static Map<MovieOperation, Integer> defaultMix() {
+        Map<MovieOperation, Integer> mix = new EnumMap<>(MovieOperation.class);
+        mix.put(MovieOperation.RETRIEVE_MOVIE_BY_ID, 70);
+        mix.put(MovieOperation.RETRIEVE_MOVIES_BY_YEAR, 20);
+        mix.put(MovieOperation.RETRIEVE_MOVIES_BY_NAME, 10);
+        return Collections.unmodifiableMap(mix);
+    }
+
+    private static Optional<String> property(String setting) {
+        return Optional.ofNullable(System.getProperty("loadtest." + setting));
+    }
+
+    private static Optional<Integer> integer(String setting) {
+        return property(setting).map(Integer::valueOf);
+    }
+
+    private static Optional<Double> decimal(String setting) {
+        return property(setting).map(Double::valueOf);
+    }
+
+    private static Optional<Duration> duration(String setting) {
+        return property(setting).map(LoadProfile::parseDuration);
+    }
+
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim().toLowerCase();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        if (trimmed.endsWith("s") && !trimmed.startsWith("p")) {
+            return Duration.ofSeconds(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        return Duration.parse(value.trim());
+    }
+}
@@ -0,0 +1,115 @@
+package com.learnwiremock.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.learnwiremock.service.HistogramMoviesClientMetrics;
+import com.learnwiremock.service.LatencyHistogram;
+import com.learnwiremock.service.MoviesWebClientSettings;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a load test's outcome to {@code <loadtest.reportDir>/<profile>.json}: the profile, throughput and error
+ * rate, connection-pool settings and acquire times as a measure of pool saturation, and per operation the latency
+ * percentiles and errors by kind. Keys are written in a fixed order, so reports of two versions can be diffed directly.
+ */
+final class LoadReport {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final String name;
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    LoadReport(LoadResult result, MoviesWebClientSettings settings, HistogramMoviesClientMetrics metrics) {
+        LoadProfile profile = result.profile();
+        this.name = profile.getName();
+        Map<String, Object> profileSettings = new LinkedHashMap<>();
+        profileSettings.put("name", profile.getName());
+        profileSettings.put("concurrency", profile.getConcurrency());
+        profileSettings.put("ratePerSecond", profile.getRatePerSecond());
+        profileSettings.put("warmup", profile.getWarmup().toString());
+        profileSettings.put("duration", profile.getDuration().toString());
+        profileSettings.put("medianDelay", profile.getMedianDelay().toString());
+        profileSettings.put("delaySigma", profile.getDelaySigma());
+        profileSettings.put("faultRatio", profile.getFaultRatio());
+        profileSettings.put("fault", profile.getFault().name());
+        profileSettings.put("errorRatio", profile.getErrorRatio());
+        report.put("profile", profileSettings);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        result.operations().forEach((operation, operationResult) -> {
+            Map<String, Object> outcome = new LinkedHashMap<>();
+            outcome.put("calls", operationResult.calls());
+            outcome.put("errors", operationResult.errors());
+            outcome.put("errorRate", rate(operationResult.errors(), operationResult.calls()));
+            outcome.put("errorsByKind", operationResult.errorsByKind());
+            outcome.put("latencyMillis", percentiles(operationResult.latency()));
+            operations.put(operation.operationName(), outcome);
+        });
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("calls", result.calls());
+        summary.put("errors", result.errors());
+        summary.put("errorRate", rate(result.errors(), result.calls()));
+        summary.put("throughputPerSecond", round(result.calls() / (profile.getDuration().toNanos() / 1e9)));
+        summary.put("maxInFlight", result.maxInFlight());
+        report.put("summary", summary);
+
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("maxConnections", settings.getMaxConnections());
+        pool.put("maxPendingAcquires", settings.getMaxPendingAcquires());
+        pool.put("acquires", metrics.connectionAcquireLatency().count());
+        pool.put("acquireMillis", percentiles(metrics.connectionAcquireLatency()));
+        report.put("connectionPool", pool);
+        report.put("operations", operations);
+    }
+
+    /**
+     * Writes the report and returns the file written.
+     */
+    File write() throws IOException {
+        File directory = new File(System.getProperty("loadtest.reportDir", "build/reports/loadtest"));
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        File file = new File(directory, name + ".json");
+        MAPPER.writeValue(file, report);
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return MAPPER.writeValueAsString(report);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Object> percentiles(LatencyHistogram histogram) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    millis(histogram.valueAtPercentile(percentile, TimeUnit.NANOSECONDS)));
+        }
+        percentiles.put("max", millis(histogram.max(TimeUnit.NANOSECONDS)));
+        percentiles.put("mean", round(histogram.mean(TimeUnit.NANOSECONDS) / 1e6));
+        return percentiles;
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double rate(long part, long total) {
+        return total == 0 ? 0 : round((double) part / total);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,123 @@
+package com.learnwiremock.loadtest;
+
+import com.learnwiremock.exception.MovieErrorResponse;
+import com.learnwiremock.service.LatencyHistogram;
+import com.learnwiremock.service.MovieOperation;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes of the calls a {@link LoadGenerator} started after the warmup: per operation, the calls, their latency
+ * from when they were due and the failures by kind. Calls still running at the end are counted when they complete.
+ */
+final class LoadResult {
+    private final LoadProfile profile;
+    private final long measureFromNanos;
+    private final Map<MovieOperation, OperationResult> operations = new EnumMap<>(MovieOperation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    LoadResult(LoadProfile profile, long measureFromNanos) {
+        this.profile = profile;
+        this.measureFromNanos = measureFromNanos;
+        for (MovieOperation operation : profile.getOperationMix().keySet()) {
+            operations.put(operation, new OperationResult());
+        }
+    }
+
+    LoadProfile profile() {
+        return profile;
+    }
+
+    void started() {
+        int current = inFlight.incrementAndGet();
+        int max = maxInFlight.get();
+        while (current > max && !maxInFlight.compareAndSet(max, current)) {
+            max = maxInFlight.get();
+        }
+    }
+
+    void succeeded(MovieOperation operation, long dueNanos) {
+        long now = System.nanoTime();
+        inFlight.decrementAndGet();
+        if (dueNanos - measureFromNanos >= 0) {
+            OperationResult result = operations.get(operation);
+            result.calls.increment();
+            result.latency.record(now - dueNanos);
+        }
+    }
+
+    void failed(MovieOperation operation, long dueNanos, Throwable error) {
+        long now = System.nanoTime();
+        inFlight.decrementAndGet();
+        if (dueNanos - measureFromNanos >= 0) {
+            OperationResult result = operations.get(operation);
+            result.calls.increment();
+            result.errorsByKind.computeIfAbsent(errorKind(error), kind -> new LongAdder()).increment();
+            result.latency.record(now - dueNanos);
+        }
+    }
+
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    Map<MovieOperation, OperationResult> operations() {
+        return Collections.unmodifiableMap(operations);
+    }
+
+    long calls() {
+        return operations.values().stream().mapToLong(OperationResult::calls).sum();
+    }
+
+    long errors() {
+        return operations.values().stream().mapToLong(OperationResult::errors).sum();
+    }
+
+    /**
+     * The HTTP status of an error response, otherwise the type of the innermost cause, e.g.
+     * {@code PrematureCloseException} for a reset connection or {@code IllegalStateException} for a call rejected
+     * because the connection pool's pending-acquire queue was full.
+     */
+    static String errorKind(Throwable error) {
+        if (error instanceof MovieErrorResponse && ((MovieErrorResponse) error).getStatusCode() != 0) {
+            return "HTTP " + ((MovieErrorResponse) error).getStatusCode();
+        }
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getClass().getSimpleName();
+    }
+
+    static final class OperationResult {
+        private final LongAdder calls = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> errorsByKind = new ConcurrentHashMap<>();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        long calls() {
+            return calls.sum();
+        }
+
+        long errors() {
+            return errorsByKind.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        Map<String, Long> errorsByKind() {
+            Map<String, Long> errors = new TreeMap<>();
+            errorsByKind.forEach((kind, count) -> errors.put(kind, count.sum()));
+            return errors;
+        }
+
+        LatencyHistogram latency() {
+            return latency;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.learnwiremock.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.learnwiremock.constants.MoviesAppConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+/**
+ * Stubs the lookups a load test makes with the {@code __files} fixtures, delayed as the profile says. Id lookups in
+ * {@link #FAULTY_IDS} are answered with the profile's fault and those in {@link #FAILING_IDS} with a 503, so the
+ * generator injects failures by choosing the id.
+ */
+final class LoadStubs {
+    static final int FAULTY_IDS = 900_000;
+    static final int FAILING_IDS = 800_000;
+
+    private LoadStubs() {
+    }
+
+    static void stub(WireMockServer wireMockServer, LoadProfile profile) {
+        String movieByIdPath = MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "");
+        wireMockServer.stubFor(get(urlPathMatching(movieByIdPath + "9[0-9]{5}"))
+                .atPriority(1)
+                .willReturn(WireMock.aResponse().withFault(profile.getFault())));
+        wireMockServer.stubFor(get(urlPathMatching(movieByIdPath + "8[0-9]{5}"))
+                .atPriority(1)
+                .willReturn(delayed(WireMock.aResponse(), profile)
+                        .withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+        wireMockServer.stubFor(get(urlPathMatching(movieByIdPath + "[0-9]+"))
+                .atPriority(5)
+                .willReturn(jsonResponse(profile).withBodyFile("movie-by-id-template.json")));
+        wireMockServer.stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1))
+                .willReturn(jsonResponse(profile).withBodyFile("movies-by-year-template.json")));
+        wireMockServer.stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1))
+                .willReturn(jsonResponse(profile).withBodyFile("movies-by-name-avengers.json")));
+    }
+
+    private static ResponseDefinitionBuilder jsonResponse(LoadProfile profile) {
+        return delayed(WireMock.aResponse(), profile)
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private static ResponseDefinitionBuilder delayed(ResponseDefinitionBuilder response, LoadProfile profile) {
+        long medianMillis = profile.getMedianDelay().toMillis();
+        if (medianMillis == 0) {
+            return response;
+        }
+        return profile.getDelaySigma() == 0
+                ? response.withFixedDelay((int) medianMillis)
+                : response.withLogNormalRandomDelay(medianMillis, profile.getDelaySigma());
+    }
+}
@@ -0,0 +1,118 @@
+package com.learnwiremock.loadtest;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.learnwiremock.service.HistogramMoviesClientMetrics;
+import com.learnwiremock.service.MovieOperation;
+import com.learnwiremock.service.MoviesWebClientFactory;
+import com.learnwiremock.service.MoviesWebClientSettings;
+import com.learnwiremock.service.ReactiveMoviesRestClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One test per load profile; each writes its report to {@code build/reports/loadtest}. The stub server answers
+ * delayed responses asynchronously and keeps no request journal, so it is not the bottleneck at these rates.
+ */
+@ExtendWith(WireMockExtension.class)
+public class MoviesClientLoadTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .containerThreads(200)
+            .asynchronousResponseEnabled(true)
+            .asynchronousResponseThreads(50)
+            .disableRequestJournal()
+            .usingFilesUnderDirectory("src/test/resources")
+            .notifier(new ConsoleNotifier(false))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @Test
+    void steadyLoad() throws IOException {
+        LoadResult result = run(LoadProfile.builder()
+                .name("steady-load")
+                .concurrency(50)
+                .medianDelay(Duration.ofMillis(5))
+                .build());
+
+        assertTrue(result.calls() > 0);
+        assertEquals(0, result.errors());
+    }
+
+    @Test
+    void thousandConcurrentCallers() throws IOException {
+        LoadResult result = run(LoadProfile.builder()
+                .name("thousand-callers")
+                .concurrency(1000)
+                .medianDelay(Duration.ofMillis(20))
+                .delaySigma(0.5)
+                .build());
+
+        assertTrue(result.calls() > 0);
+    }
+
+    @Test
+    void slowBackend() throws IOException {
+        LoadResult result = run(LoadProfile.builder()
+                .name("slow-backend")
+                .ratePerSecond(500)
+                .concurrency(2000)
+                .medianDelay(Duration.ofMillis(200))
+                .delaySigma(1.0)
+                .build());
+
+        assertTrue(result.calls() > 0);
+    }
+
+    @Test
+    void faultyBackend() throws IOException {
+        LoadResult result = run(LoadProfile.builder()
+                .name("faulty-backend")
+                .ratePerSecond(300)
+                .concurrency(500)
+                .medianDelay(Duration.ofMillis(10))
+                .faultRatio(0.05)
+                .fault(Fault.CONNECTION_RESET_BY_PEER)
+                .errorRatio(0.05)
+                .build());
+
+        assertTrue(result.calls() > 0);
+        assertTrue(result.operations().get(MovieOperation.RETRIEVE_MOVIE_BY_ID).errorsByKind().containsKey("HTTP 503"));
+    }
+
+    private LoadResult run(LoadProfile basicProfile) throws IOException {
+        LoadProfile profile = basicProfile.withOverrides();
+        LoadStubs.stub(wireMockServer, profile);
+        MoviesWebClientSettings settings = MoviesWebClientSettings.builder()
+                .poolName(profile.getName())
+                .build();
+        HistogramMoviesClientMetrics metrics = new HistogramMoviesClientMetrics();
+        ReactiveMoviesRestClient client = MoviesWebClientFactory.reactiveMoviesRestClient(
+                String.format("http://localhost:%s", wireMockServer.port()), settings, metrics);
+
+        LoadResult result = new LoadGenerator(profile, client).run();
+
+        LoadReport report = new LoadReport(result, settings, metrics);
+        File file = report.write();
+        System.out.println(report);
+        System.out.println("Load test report written to " + file);
+        return result;
+    }
+}
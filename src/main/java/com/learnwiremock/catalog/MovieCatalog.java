@@ -0,0 +1,248 @@
+package com.learnwiremock.catalog;
+
+import com.learnwiremock.dto.Movie;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, column-oriented copy of a movie catalog for keeping large catalogs resident. Ids, years and release
+ * dates are stored in primitive arrays and names and casts are dictionary-encoded, so a movie costs a few dozen
+ * bytes plus its share of the distinct strings instead of a {@link Movie} with four boxed or object fields.
+ * <p>
+ * {@link #get(int)} and {@link #asList()} hand out a fresh {@link Movie} per call; changing it does not change the
+ * catalog. Missing ids, years and dates are kept as {@code null}.
+ */
+public final class MovieCatalog {
+    private static final long NO_ID = Long.MIN_VALUE;
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+    private static final int NO_STRING = -1;
+
+    private final long[] ids;
+    private final int[] years;
+    private final int[] releaseEpochDays;
+    private final int[] nameCodes;
+    private final int[] castCodes;
+    private final String[] names;
+    private final String[] casts;
+
+    private MovieCatalog(long[] ids, int[] years, int[] releaseEpochDays, int[] nameCodes, int[] castCodes,
+                         String[] names, String[] casts) {
+        this.ids = ids;
+        this.years = years;
+        this.releaseEpochDays = releaseEpochDays;
+        this.nameCodes = nameCodes;
+        this.castCodes = castCodes;
+        this.names = names;
+        this.casts = casts;
+    }
+
+    public static Builder builder() {
+        return new Builder(64);
+    }
+
+    /**
+     * Wraps already encoded columns without copying them; used when a catalog is read back from a snapshot.
+     */
+    static MovieCatalog ofColumns(long[] ids, int[] years, int[] releaseEpochDays, int[] nameCodes, int[] castCodes,
+                                  String[] names, String[] casts) {
+        return new MovieCatalog(ids, years, releaseEpochDays, nameCodes, castCodes, names, casts);
+    }
+
+    public static MovieCatalog of(Iterable<Movie> movies) {
+        Builder builder = builder();
+        movies.forEach(builder::add);
+        return builder.build();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public Movie get(int index) {
+        return new Movie(movieId(index), name(index), year(index), cast(index), releaseDate(index));
+    }
+
+    /**
+     * A read-only list view that materializes each {@link Movie} as it is accessed.
+     */
+    public List<Movie> asList() {
+        return new AbstractList<Movie>() {
+            @Override
+            public Movie get(int index) {
+                return MovieCatalog.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return MovieCatalog.this.size();
+            }
+        };
+    }
+
+    public Long movieId(int index) {
+        return ids[index] == NO_ID ? null : ids[index];
+    }
+
+    public String name(int index) {
+        return nameCodes[index] == NO_STRING ? null : names[nameCodes[index]];
+    }
+
+    public Integer year(int index) {
+        return years[index] == NO_VALUE ? null : years[index];
+    }
+
+    public String cast(int index) {
+        return castCodes[index] == NO_STRING ? null : casts[castCodes[index]];
+    }
+
+    public LocalDate releaseDate(int index) {
+        return releaseEpochDays[index] == NO_VALUE ? null : LocalDate.ofEpochDay(releaseEpochDays[index]);
+    }
+
+    /**
+     * Primitive access for scans and indexes; {@code hasMovieId} tells whether the value is meaningful.
+     */
+    public long rawMovieId(int index) {
+        return ids[index];
+    }
+
+    public boolean hasMovieId(int index) {
+        return ids[index] != NO_ID;
+    }
+
+    public int rawYear(int index) {
+        return years[index];
+    }
+
+    public boolean hasYear(int index) {
+        return years[index] != NO_VALUE;
+    }
+
+    public int distinctNames() {
+        return names.length;
+    }
+
+    int nameCode(int index) {
+        return nameCodes[index];
+    }
+
+    String distinctName(int code) {
+        return names[code];
+    }
+
+    public int distinctCasts() {
+        return casts.length;
+    }
+
+    long[] idColumn() {
+        return ids;
+    }
+
+    int[] yearColumn() {
+        return years;
+    }
+
+    int[] releaseEpochDayColumn() {
+        return releaseEpochDays;
+    }
+
+    int[] nameCodeColumn() {
+        return nameCodes;
+    }
+
+    int[] castCodeColumn() {
+        return castCodes;
+    }
+
+    String[] nameDictionary() {
+        return names;
+    }
+
+    String[] castDictionary() {
+        return casts;
+    }
+
+    /**
+     * Accumulates movies one at a time, e.g. as they are decoded from a streamed response, so the full list of
+     * {@link Movie} objects never has to exist. Not thread-safe.
+     */
+    public static final class Builder {
+        private long[] ids;
+        private int[] years;
+        private int[] releaseEpochDays;
+        private int[] nameCodes;
+        private int[] castCodes;
+        private int size;
+        private final Dictionary names = new Dictionary();
+        private final Dictionary casts = new Dictionary();
+
+        private Builder(int capacity) {
+            ids = new long[capacity];
+            years = new int[capacity];
+            releaseEpochDays = new int[capacity];
+            nameCodes = new int[capacity];
+            castCodes = new int[capacity];
+        }
+
+        public Builder add(Movie movie) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = movie.getMovie_id() == null ? NO_ID : movie.getMovie_id();
+            years[size] = movie.getYear() == null ? NO_VALUE : movie.getYear();
+            releaseEpochDays[size] = movie.getRelease_date() == null
+                    ? NO_VALUE
+                    : Math.toIntExact(movie.getRelease_date().toEpochDay());
+            nameCodes[size] = names.encode(movie.getName());
+            castCodes[size] = casts.encode(movie.getCast());
+            size++;
+            return this;
+        }
+
+        public MovieCatalog build() {
+            return new MovieCatalog(Arrays.copyOf(ids, size), Arrays.copyOf(years, size),
+                    Arrays.copyOf(releaseEpochDays, size), Arrays.copyOf(nameCodes, size),
+                    Arrays.copyOf(castCodes, size), names.toArray(), casts.toArray());
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            years = Arrays.copyOf(years, capacity);
+            releaseEpochDays = Arrays.copyOf(releaseEpochDays, capacity);
+            nameCodes = Arrays.copyOf(nameCodes, capacity);
+            castCodes = Arrays.copyOf(castCodes, capacity);
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] values = new String[16];
+
+        int encode(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            int newCode = codes.size();
+            if (newCode == values.length) {
+                values = Arrays.copyOf(values, newCode * 2);
+            }
+            values[newCode] = value;
+            codes.put(value, newCode);
+            return newCode;
+        }
+
+        String[] toArray() {
+            return Arrays.copyOf(values, codes.size());
+        }
+    }
+}
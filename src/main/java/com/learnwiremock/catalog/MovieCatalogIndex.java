@@ -0,0 +1,224 @@
+package com.learnwiremock.catalog;
+
+import com.learnwiremock.dto.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable in-memory indexes over a {@link MovieCatalog} for answering the movie service's lookups locally:
+ * <ul>
+ * <li>by id through an open-addressing hash table of primitive ids,</li>
+ * <li>by year through movie positions sorted by year and a binary search, and</li>
+ * <li>by name, a case-insensitive substring match like the movie service's, through a trigram index over the
+ * distinct names; queries shorter than three characters scan the distinct names instead.</li>
+ * </ul>
+ * Results are in catalog order, and every call returns fresh {@link Movie} instances.
+ */
+public final class MovieCatalogIndex {
+    private static final int TRIGRAM = 3;
+
+    private final MovieCatalog catalog;
+
+    private final long[] idKeys;
+    private final int[] idSlots;
+    private final int idMask;
+
+    private final int[] sortedYears;
+    private final int[] positionsByYear;
+
+    private final String[] lowerCaseNames;
+    private final int[][] positionsByName;
+    private final Map<String, int[]> namesByTrigram;
+
+    private MovieCatalogIndex(MovieCatalog catalog) {
+        this.catalog = catalog;
+
+        int capacity = Integer.highestOneBit(Math.max(2, catalog.size()) * 2 - 1) << 1;
+        this.idKeys = new long[capacity];
+        this.idSlots = new int[capacity];
+        this.idMask = capacity - 1;
+        for (int position = 0; position < catalog.size(); position++) {
+            if (catalog.hasMovieId(position)) {
+                indexMovieId(catalog.rawMovieId(position), position);
+            }
+        }
+
+        long[] yearAndPosition = new long[catalog.size()];
+        int withYear = 0;
+        for (int position = 0; position < catalog.size(); position++) {
+            if (catalog.hasYear(position)) {
+                yearAndPosition[withYear++] = ((long) catalog.rawYear(position) << 32) | position;
+            }
+        }
+        Arrays.sort(yearAndPosition, 0, withYear);
+        this.sortedYears = new int[withYear];
+        this.positionsByYear = new int[withYear];
+        for (int index = 0; index < withYear; index++) {
+            sortedYears[index] = (int) (yearAndPosition[index] >> 32);
+            positionsByYear[index] = (int) yearAndPosition[index];
+        }
+
+        this.lowerCaseNames = new String[catalog.distinctNames()];
+        this.positionsByName = new int[catalog.distinctNames()][];
+        this.namesByTrigram = new HashMap<>();
+        indexNames();
+    }
+
+    public static MovieCatalogIndex of(MovieCatalog catalog) {
+        return new MovieCatalogIndex(catalog);
+    }
+
+    public MovieCatalog catalog() {
+        return catalog;
+    }
+
+    public Optional<Movie> findMovieById(long movieId) {
+        for (int slot = mix(movieId) & idMask; idSlots[slot] != 0; slot = (slot + 1) & idMask) {
+            if (idKeys[slot] == movieId) {
+                return Optional.of(catalog.get(idSlots[slot] - 1));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<Movie> moviesByYear(int year) {
+        int from = lowerBound(sortedYears, year);
+        int to = year == Integer.MAX_VALUE ? sortedYears.length : lowerBound(sortedYears, year + 1);
+        List<Movie> movies = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            movies.add(catalog.get(positionsByYear[index]));
+        }
+        return movies;
+    }
+
+    public List<Movie> moviesByName(String movieName) {
+        String query = movieName.toLowerCase(Locale.ROOT);
+        int[] candidates = candidateNames(query);
+        int[] positions = new int[0];
+        int matches = 0;
+        for (int code : candidates) {
+            if (lowerCaseNames[code].contains(query)) {
+                int[] namePositions = positionsByName[code];
+                if (matches + namePositions.length > positions.length) {
+                    positions = Arrays.copyOf(positions, Math.max(positions.length * 2, matches + namePositions.length));
+                }
+                System.arraycopy(namePositions, 0, positions, matches, namePositions.length);
+                matches += namePositions.length;
+            }
+        }
+        Arrays.sort(positions, 0, matches);
+        List<Movie> movies = new ArrayList<>(matches);
+        for (int index = 0; index < matches; index++) {
+            movies.add(catalog.get(positions[index]));
+        }
+        return movies;
+    }
+
+    private int[] candidateNames(String query) {
+        if (query.length() < TRIGRAM) {
+            int[] allNames = new int[lowerCaseNames.length];
+            Arrays.setAll(allNames, code -> code);
+            return allNames;
+        }
+        int[] smallest = null;
+        for (int start = 0; start + TRIGRAM <= query.length(); start++) {
+            int[] names = namesByTrigram.get(query.substring(start, start + TRIGRAM));
+            if (names == null) {
+                return new int[0];
+            }
+            if (smallest == null || names.length < smallest.length) {
+                smallest = names;
+            }
+        }
+        return smallest;
+    }
+
+    private void indexMovieId(long movieId, int position) {
+        int slot = mix(movieId) & idMask;
+        while (idSlots[slot] != 0) {
+            if (idKeys[slot] == movieId) {
+                return;
+            }
+            slot = (slot + 1) & idMask;
+        }
+        idKeys[slot] = movieId;
+        idSlots[slot] = position + 1;
+    }
+
+    private void indexNames() {
+        int[] counts = new int[lowerCaseNames.length];
+        for (int position = 0; position < catalog.size(); position++) {
+            int code = catalog.nameCode(position);
+            if (code >= 0) {
+                counts[code]++;
+            }
+        }
+        for (int code = 0; code < lowerCaseNames.length; code++) {
+            positionsByName[code] = new int[counts[code]];
+            counts[code] = 0;
+        }
+        for (int position = 0; position < catalog.size(); position++) {
+            int code = catalog.nameCode(position);
+            if (code >= 0) {
+                positionsByName[code][counts[code]++] = position;
+            }
+        }
+
+        Map<String, IntList> trigrams = new HashMap<>();
+        for (int code = 0; code < lowerCaseNames.length; code++) {
+            String name = catalog.distinctName(code).toLowerCase(Locale.ROOT);
+            lowerCaseNames[code] = name;
+            for (int start = 0; start + TRIGRAM <= name.length(); start++) {
+                trigrams.computeIfAbsent(name.substring(start, start + TRIGRAM), trigram -> new IntList()).addOnce(code);
+            }
+        }
+        trigrams.forEach((trigram, codes) -> namesByTrigram.put(trigram, codes.toArray()));
+    }
+
+    private static int lowerBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int mix(long movieId) {
+        long hash = movieId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Ascending list of name codes; codes are added in increasing order, so a repeat is always the last element.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
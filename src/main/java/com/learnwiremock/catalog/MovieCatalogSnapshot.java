@@ -0,0 +1,200 @@
+package com.learnwiremock.catalog;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary snapshot of a {@link MovieCatalog} for warm starts. The file holds the catalog's columns as they
+ * are kept in memory, so reading one back is a memory-mapped checksum pass plus bulk copies into the column arrays
+ * and decoding the distinct names and casts; nothing is parsed per movie.
+ * <p>
+ * Layout, big-endian: a header of magic, format version, movie count and dictionary sizes; the id, year, release
+ * date, name code and cast code columns; the distinct names and casts as length-prefixed UTF-8; and a CRC32 of
+ * everything before it. {@link #write} replaces the file atomically, so a reader never sees a half-written snapshot.
+ */
+public final class MovieCatalogSnapshot {
+    static final int MAGIC = 0x4D564353;
+    static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+    private static final int CHECKSUM_BYTES = Integer.BYTES;
+
+    private MovieCatalogSnapshot() {
+    }
+
+    public static void write(MovieCatalog catalog, Path path) throws IOException {
+        byte[][] names = utf8(catalog.nameDictionary());
+        byte[][] casts = utf8(catalog.castDictionary());
+        long length = HEADER_BYTES
+                + (long) catalog.size() * (Long.BYTES + 4 * Integer.BYTES)
+                + dictionaryBytes(names) + dictionaryBytes(casts)
+                + CHECKSUM_BYTES;
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Movie catalog of " + catalog.size() + " movies is too large for a snapshot");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        buffer.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(catalog.size())
+                .putInt(names.length)
+                .putInt(casts.length);
+        buffer.asLongBuffer().put(catalog.idColumn());
+        buffer.position(buffer.position() + catalog.size() * Long.BYTES);
+        putInts(buffer, catalog.yearColumn());
+        putInts(buffer, catalog.releaseEpochDayColumn());
+        putInts(buffer, catalog.nameCodeColumn());
+        putInts(buffer, catalog.castCodeColumn());
+        putDictionary(buffer, names);
+        putDictionary(buffer, casts);
+        buffer.putInt(checksum(buffer, buffer.position()));
+        buffer.flip();
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}; a file that is truncated, corrupted or written in another format
+     * version is rejected with an {@link IOException}.
+     */
+    public static MovieCatalog read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES + CHECKSUM_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a movie catalog snapshot: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a movie catalog snapshot: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported movie catalog snapshot version " + version + ": " + path);
+            }
+            int checksumAt = (int) length - CHECKSUM_BYTES;
+            if (checksum(buffer, checksumAt) != buffer.getInt(checksumAt)) {
+                throw new IOException("Movie catalog snapshot checksum mismatch: " + path);
+            }
+            return readCatalog(buffer, checksumAt, path);
+        }
+    }
+
+    private static MovieCatalog readCatalog(ByteBuffer buffer, int checksumAt, Path path) throws IOException {
+        try {
+            buffer.limit(checksumAt);
+            int size = buffer.getInt();
+            String[] names = new String[buffer.getInt()];
+            String[] casts = new String[buffer.getInt()];
+
+            long[] ids = new long[size];
+            buffer.asLongBuffer().get(ids);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            int[] years = getInts(buffer, size);
+            int[] releaseEpochDays = getInts(buffer, size);
+            int[] nameCodes = getInts(buffer, size);
+            int[] castCodes = getInts(buffer, size);
+            checkCodes(nameCodes, names.length, "name", path);
+            checkCodes(castCodes, casts.length, "cast", path);
+
+            byte[] strings = new byte[buffer.remaining()];
+            buffer.get(strings);
+            ByteBuffer dictionaries = ByteBuffer.wrap(strings);
+            getDictionary(dictionaries, names);
+            getDictionary(dictionaries, casts);
+            if (dictionaries.hasRemaining()) {
+                throw new IOException("Movie catalog snapshot has trailing bytes: " + path);
+            }
+            return MovieCatalog.ofColumns(ids, years, releaseEpochDays, nameCodes, castCodes, names, casts);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                | NegativeArraySizeException e) {
+            throw new IOException("Malformed movie catalog snapshot: " + path, e);
+        }
+    }
+
+    /**
+     * A code must refer to an entry of its dictionary or be {@code -1} for a missing value; the checksum only guards
+     * against corruption, not against a writer that got the codes wrong.
+     */
+    private static void checkCodes(int[] codes, int dictionarySize, String column, Path path) throws IOException {
+        for (int code : codes) {
+            if (code < -1 || code >= dictionarySize) {
+                throw new IOException("Movie catalog snapshot has " + column + " code " + code + " outside its "
+                        + dictionarySize + " entry dictionary: " + path);
+            }
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int length) {
+        ByteBuffer covered = buffer.duplicate();
+        covered.clear().limit(length);
+        CRC32 crc = new CRC32();
+        crc.update(covered);
+        return (int) crc.getValue();
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    private static int[] getInts(ByteBuffer buffer, int size) {
+        int[] values = new int[size];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        return values;
+    }
+
+    private static byte[][] utf8(String[] values) {
+        byte[][] encoded = new byte[values.length][];
+        for (int index = 0; index < values.length; index++) {
+            encoded[index] = values[index].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    private static long dictionaryBytes(byte[][] values) {
+        long bytes = 0;
+        for (byte[] value : values) {
+            bytes += Integer.BYTES + value.length;
+        }
+        return bytes;
+    }
+
+    private static void putDictionary(ByteBuffer buffer, byte[][] values) {
+        for (byte[] value : values) {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static void getDictionary(ByteBuffer buffer, String[] values) {
+        byte[] array = buffer.array();
+        for (int index = 0; index < values.length; index++) {
+            int length = buffer.getInt();
+            int offset = buffer.position();
+            buffer.position(offset + length);
+            values[index] = new String(array, offset, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.learnwiremock.codec;
+
+import java.time.LocalDate;
+
+/**
+ * Parses ISO {@code yyyy-MM-dd} dates straight from the parser's character buffer and hands out a shared
+ * {@link LocalDate} for dates seen before. A movie catalog has far fewer distinct release dates than movies, so
+ * most lookups neither allocate a {@code String} nor a {@link LocalDate}.
+ * <p>
+ * The cache is direct-mapped and unsynchronized: {@link LocalDate} is immutable, so a racing reader sees either a
+ * complete entry or a miss, never a torn one.
+ */
+final class LocalDateCache {
+    private static final int SIZE = 4096;
+
+    private final LocalDate[] dates = new LocalDate[SIZE];
+
+    LocalDate parse(char[] chars, int offset, int length) {
+        if (!isIsoDate(chars, offset, length)) {
+            return LocalDate.parse(new String(chars, offset, length));
+        }
+        return lookup(digits(chars, offset, 4), digits(chars, offset + 5, 2), digits(chars, offset + 8, 2));
+    }
+
+    LocalDate parse(String text) {
+        if (!isIsoDate(text)) {
+            return LocalDate.parse(text);
+        }
+        return lookup(digits(text, 0, 4), digits(text, 5, 2), digits(text, 8, 2));
+    }
+
+    private LocalDate lookup(int year, int month, int day) {
+        int slot = ((year * 12 + month) * 31 + day) & (SIZE - 1);
+        LocalDate cached = dates[slot];
+        if (cached != null && cached.getYear() == year && cached.getMonthValue() == month && cached.getDayOfMonth() == day) {
+            return cached;
+        }
+        LocalDate date = LocalDate.of(year, month, day);
+        dates[slot] = date;
+        return date;
+    }
+
+    private static boolean isIsoDate(char[] chars, int offset, int length) {
+        if (length != 10 || chars[offset + 4] != '-' || chars[offset + 7] != '-') {
+            return false;
+        }
+        for (int index = 0; index < 10; index++) {
+            char c = chars[offset + index];
+            if (index != 4 && index != 7 && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIsoDate(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return false;
+        }
+        for (int index = 0; index < 10; index++) {
+            char c = text.charAt(index);
+            if (index != 4 && index != 7 && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digits(String text, int offset, int count) {
+        int value = 0;
+        for (int index = offset; index < offset + count; index++) {
+            value = value * 10 + (text.charAt(index) - '0');
+        }
+        return value;
+    }
+
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int index = offset; index < offset + count; index++) {
+            value = value * 10 + (chars[index] - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,76 @@
+package com.learnwiremock.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.learnwiremock.dto.Movie;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Shared JSON codec for the movie service. The {@link ObjectMapper} is configured like Spring's default one, with
+ * {@link MovieJsonDeserializer} registered for {@link Movie}, and is warmed up once when this class is loaded so
+ * the first exchange does not pay for building deserializers.
+ * <p>
+ * Spring's {@link Jackson2JsonDecoder} feeds the response {@code DataBuffer}s to Jackson's non-blocking parser,
+ * so movies are decoded from the network bytes without an intermediate {@code String} of the body.
+ */
+public final class MovieCodecs {
+    private static final String WARM_UP_JSON =
+            "[{\"movie_id\":1,\"name\":\"Batman Begins\",\"year\":2005,\"cast\":\"Christian Bale\",\"release_date\":\"2005-06-15\"}]";
+
+    private static final ObjectMapper OBJECT_MAPPER = warmUp(Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(movieModule())
+            .build());
+    private static final ObjectReader MOVIE_READER = OBJECT_MAPPER.readerFor(Movie.class);
+
+    private MovieCodecs() {
+    }
+
+    public static Module movieModule() {
+        return new SimpleModule("MovieCodec").addDeserializer(Movie.class, new MovieJsonDeserializer());
+    }
+
+    public static ObjectMapper objectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    public static ObjectReader movieReader() {
+        return MOVIE_READER;
+    }
+
+    public static ExchangeStrategies exchangeStrategies() {
+        return WebClientCodecs.EXCHANGE_STRATEGIES;
+    }
+
+    private static ObjectMapper warmUp(ObjectMapper objectMapper) {
+        try {
+            List<Movie> movies = objectMapper.readValue(WARM_UP_JSON, new TypeReference<List<Movie>>() {
+            });
+            objectMapper.writeValueAsBytes(movies);
+            return objectMapper;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Built on first use, so clients on a non-WebClient transport never load the WebClient codec classes.
+     */
+    private static final class WebClientCodecs {
+        private static final ExchangeStrategies EXCHANGE_STRATEGIES = ExchangeStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(OBJECT_MAPPER));
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(OBJECT_MAPPER));
+                })
+                .build();
+    }
+}
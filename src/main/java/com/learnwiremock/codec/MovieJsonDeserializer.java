@@ -0,0 +1,74 @@
+package com.learnwiremock.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.learnwiremock.dto.Movie;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Hand-written streaming deserializer for {@link Movie}: fields are matched by name and set through the setters
+ * directly, so decoding involves no reflection, no bean property lookups and no intermediate tree. Release dates
+ * go through a {@link LocalDateCache}. Unknown properties are handled as configured on the {@code ObjectMapper}.
+ */
+public class MovieJsonDeserializer extends StdDeserializer<Movie> {
+    private final LocalDateCache releaseDates = new LocalDateCache();
+
+    public MovieJsonDeserializer() {
+        super(Movie.class);
+    }
+
+    @Override
+    public Movie deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.getCurrentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (Movie) ctxt.handleUnexpectedToken(Movie.class, p);
+        }
+
+        Movie movie = new Movie();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.getCurrentName();
+            JsonToken value = p.nextToken();
+            boolean isNull = value == JsonToken.VALUE_NULL;
+            switch (field) {
+                case "movie_id":
+                    movie.setMovie_id(isNull ? null : _parseLongPrimitive(p, ctxt));
+                    break;
+                case "name":
+                    movie.setName(isNull ? null : _parseString(p, ctxt));
+                    break;
+                case "year":
+                    movie.setYear(isNull ? null : _parseIntPrimitive(p, ctxt));
+                    break;
+                case "cast":
+                    movie.setCast(isNull ? null : _parseString(p, ctxt));
+                    break;
+                case "release_date":
+                    movie.setRelease_date(isNull ? null : parseReleaseDate(p, ctxt));
+                    break;
+                default:
+                    handleUnknownProperty(p, ctxt, movie, field);
+            }
+        }
+        return movie;
+    }
+
+    private LocalDate parseReleaseDate(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.getCurrentToken() != JsonToken.VALUE_STRING) {
+            return ctxt.readValue(p, LocalDate.class);
+        }
+        try {
+            return p.hasTextCharacters()
+                    ? releaseDates.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength())
+                    : releaseDates.parse(p.getText());
+        } catch (DateTimeException e) {
+            return (LocalDate) ctxt.handleWeirdStringValue(LocalDate.class, p.getText(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.learnwiremock.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Result of a bulk mutation run: how many changes were applied and which ones failed, with the status the movie
+ * service answered (0 when no response was received).
+ */
+@Value
+public class BulkMutationSummary {
+    long succeeded;
+    List<Failure> failures;
+
+    public long getFailed() {
+        return failures.size();
+    }
+
+    @Value
+    public static class Failure {
+        MovieMutation mutation;
+        int statusCode;
+        String statusText;
+    }
+}
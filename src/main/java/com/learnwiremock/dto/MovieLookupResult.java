@@ -0,0 +1,44 @@
+package com.learnwiremock.dto;
+
+import com.learnwiremock.exception.MovieErrorResponse;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Outcome of looking up one id as part of a batch: the movie, or why it could not be returned.
+ */
+@Value
+@AllArgsConstructor
+public class MovieLookupResult {
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        FAILED,
+        TIMED_OUT
+    }
+
+    Integer movieId;
+    Status status;
+    Movie movie;
+    MovieErrorResponse error;
+
+    public static MovieLookupResult found(Integer movieId, Movie movie) {
+        return new MovieLookupResult(movieId, Status.FOUND, movie, null);
+    }
+
+    public static MovieLookupResult notFound(Integer movieId, MovieErrorResponse error) {
+        return new MovieLookupResult(movieId, Status.NOT_FOUND, null, error);
+    }
+
+    public static MovieLookupResult failed(Integer movieId, MovieErrorResponse error) {
+        return new MovieLookupResult(movieId, Status.FAILED, null, error);
+    }
+
+    public static MovieLookupResult timedOut(Integer movieId) {
+        return new MovieLookupResult(movieId, Status.TIMED_OUT, null, null);
+    }
+
+    public boolean isFound() {
+        return status == Status.FOUND;
+    }
+}
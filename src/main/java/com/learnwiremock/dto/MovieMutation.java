@@ -0,0 +1,33 @@
+package com.learnwiremock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * One change in a bulk mutation batch: add a new movie, edit an existing one, or delete one by id.
+ */
+@Value
+@AllArgsConstructor
+public class MovieMutation {
+    public enum Type {
+        ADD,
+        EDIT,
+        DELETE
+    }
+
+    Type type;
+    Integer movieId;
+    Movie movie;
+
+    public static MovieMutation add(Movie movie) {
+        return new MovieMutation(Type.ADD, null, movie);
+    }
+
+    public static MovieMutation edit(Integer movieId, Movie movie) {
+        return new MovieMutation(Type.EDIT, movieId, movie);
+    }
+
+    public static MovieMutation delete(Integer movieId) {
+        return new MovieMutation(Type.DELETE, movieId, null);
+    }
+}
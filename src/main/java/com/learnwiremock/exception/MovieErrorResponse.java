@@ -1,13 +1,71 @@
 package com.learnwiremock.exception;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.nio.charset.StandardCharsets;
+
 public class MovieErrorResponse extends RuntimeException {
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final int statusCode;
+    private final byte[] responseBody;
+
     public MovieErrorResponse(String statusText, WebClientResponseException e) {
         super(statusText, e);
+        this.statusCode = e.getRawStatusCode();
+        this.responseBody = e.getResponseBodyAsByteArray();
     }
 
     public MovieErrorResponse(Exception e) {
         super(e);
+        this.statusCode = 0;
+        this.responseBody = NO_BODY;
+    }
+
+    /**
+     * An error response of the movie service, with the body as received. {@code stackless} skips capturing the stack
+     * trace, for statuses callers expect and handle such as the 404 for a missing movie.
+     */
+    public MovieErrorResponse(int statusCode, String statusText, byte[] responseBody, boolean stackless) {
+        super(statusText, null, !stackless, !stackless);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    /**
+     * For calls the client rejects without contacting the movie service; these are expected under load and carry no
+     * stack trace.
+     */
+    protected MovieErrorResponse(String message) {
+        super(message, null, false, false);
+        this.statusCode = 0;
+        this.responseBody = NO_BODY;
+    }
+
+    /**
+     * A 404 like the one the movie service answers with, for lookups answered without a request.
+     */
+    public static MovieErrorResponse notFound(String message) {
+        HttpStatus status = HttpStatus.NOT_FOUND;
+        return new MovieErrorResponse(status.value(), status.getReasonPhrase(), message.getBytes(StandardCharsets.UTF_8), true);
+    }
+
+    /**
+     * The HTTP status the movie service answered with, or 0 if the call failed before a response was received.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isNotFound() {
+        return statusCode == HttpStatus.NOT_FOUND.value();
+    }
+
+    /**
+     * The body of the error response, decoded as UTF-8 on each call; empty if there was no response.
+     */
+    public String getResponseBodyAsString() {
+        return new String(responseBody, StandardCharsets.UTF_8);
     }
 }
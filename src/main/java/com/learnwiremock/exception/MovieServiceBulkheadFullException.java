@@ -0,0 +1,10 @@
+package com.learnwiremock.exception;
+
+/**
+ * Thrown without contacting the movie service when the client already has its maximum number of calls in flight.
+ */
+public class MovieServiceBulkheadFullException extends MovieErrorResponse {
+    public MovieServiceBulkheadFullException(String message) {
+        super(message);
+    }
+}
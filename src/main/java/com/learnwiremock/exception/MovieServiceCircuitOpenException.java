@@ -0,0 +1,11 @@
+package com.learnwiremock.exception;
+
+/**
+ * Thrown without contacting the movie service while the client's circuit breaker is open because too many recent
+ * calls have failed.
+ */
+public class MovieServiceCircuitOpenException extends MovieErrorResponse {
+    public MovieServiceCircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,360 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.exception.MovieErrorResponse;
+import com.learnwiremock.exception.MovieServiceBulkheadFullException;
+import com.learnwiremock.exception.MovieServiceCircuitOpenException;
+import org.springframework.http.HttpStatus;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the calls a client has in flight at a limit that adapts to the movie service's latency, AIMD style:
+ * <ul>
+ * <li>a call that completes without a sign of overload while at least half of the limit was in use raises the limit
+ * by {@code 1 / limit}, so by about one per limit's worth of calls;</li>
+ * <li>a sign of overload (see {@link AdaptiveConcurrencySettings}) multiplies it by the backoff ratio. Calls that
+ * started before the last decrease do not lower it again, so one congestion episode costs one decrease.</li>
+ * </ul>
+ * A call beyond the limit waits in a bounded FIFO queue for up to {@link AdaptiveConcurrencySettings#getMaxQueueWait()}
+ * and is otherwise shed with a {@link MovieServiceBulkheadFullException}, without contacting the movie service.
+ * The limit is reported to {@link MoviesClientMetrics#recordConcurrencyLimit} whenever it changes.
+ * <p>
+ * Place it after {@link ResilienceMovieCallInterceptor}, so that every attempt takes a slot and the queue wait
+ * counts against the call's deadline. A call that times out there, or loses a hedge, reaches this interceptor as a
+ * cancellation: it lowers the limit if it had already run longer than the tolerated latency, and otherwise says
+ * nothing, since it may have been cancelled for reasons unrelated to the movie service.
+ */
+public final class AdaptiveConcurrencyMovieCallInterceptor implements MovieCallInterceptor {
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int STARTED = 2;
+    private static final int ABANDONED = 3;
+
+    private final AdaptiveConcurrencySettings settings;
+    private final MoviesClientMetrics metrics;
+    private final LongSupplier nanoClock;
+    private final long baselineWindowNanos;
+    private final Lock lock = new ReentrantLock();
+    private final Deque<Permit> waiters = new ArrayDeque<>();
+    private final Map<MovieOperation, Baseline> baselines = new EnumMap<>(MovieOperation.class);
+    private double limit;
+    private int inFlightCalls;
+    private long lastDecreaseNanos;
+    private int reportedLimit;
+
+    public AdaptiveConcurrencyMovieCallInterceptor(AdaptiveConcurrencySettings settings) {
+        this(settings, MoviesClientMetrics.NOOP);
+    }
+
+    public AdaptiveConcurrencyMovieCallInterceptor(AdaptiveConcurrencySettings settings, MoviesClientMetrics metrics) {
+        this(settings, metrics, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyMovieCallInterceptor(AdaptiveConcurrencySettings settings, MoviesClientMetrics metrics,
+                                            LongSupplier nanoClock) {
+        if (settings.getMinLimit() < 1 || settings.getMaxLimit() < settings.getMinLimit()) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= maxLimit: " + settings);
+        }
+        this.settings = settings;
+        this.metrics = metrics;
+        this.nanoClock = nanoClock;
+        this.baselineWindowNanos = settings.getBaselineWindow().toNanos();
+        this.limit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), settings.getInitialLimit()));
+        this.lastDecreaseNanos = nanoClock.getAsLong();
+        for (MovieOperation operation : MovieOperation.values()) {
+            baselines.put(operation, new Baseline(lastDecreaseNanos));
+        }
+        this.reportedLimit = currentLimit();
+        metrics.recordConcurrencyLimit(reportedLimit);
+    }
+
+    @Override
+    public <T> Mono<T> interceptMono(MovieOperation operation, Mono<T> call) {
+        return acquire(operation).flatMap(permit -> permit.start()
+                ? call.doOnSuccessOrError((value, error) -> onSample(permit, error))
+                        .doOnCancel(() -> onCancel(permit))
+                        .doFinally(signal -> release())
+                : Mono.empty());
+    }
+
+    @Override
+    public <T> Flux<T> interceptFlux(MovieOperation operation, Flux<T> call) {
+        return acquire(operation).flatMapMany(permit -> permit.start()
+                ? call.doOnComplete(() -> onSample(permit, null)).doOnError(error -> onSample(permit, error))
+                        .doOnCancel(() -> onCancel(permit))
+                        .doFinally(signal -> release())
+                : Flux.empty());
+    }
+
+    int limit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlightCalls() {
+        lock.lock();
+        try {
+            return inFlightCalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Mono<Permit> acquire(MovieOperation operation) {
+        return Mono.create(sink -> {
+            Permit permit = new Permit(operation, sink);
+            sink.onCancel(permit::abandon);
+            boolean granted = false;
+            boolean queued = false;
+            lock.lock();
+            try {
+                if (inFlightCalls < currentLimit()) {
+                    granted = permit.grant(nanoClock.getAsLong(), inFlightCalls + 1);
+                    if (granted) {
+                        inFlightCalls++;
+                    }
+                } else if (waiters.size() < settings.getMaxQueuedCalls() && !settings.getMaxQueueWait().isZero()) {
+                    waiters.addLast(permit);
+                    queued = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (granted) {
+                sink.success(permit);
+            } else if (queued) {
+                permit.expireAfter(settings.getMaxQueueWait().toNanos());
+            } else if (permit.reject()) {
+                shed(permit);
+            }
+        });
+    }
+
+    private void release() {
+        Permit next;
+        lock.lock();
+        try {
+            inFlightCalls--;
+            next = grantNextWaiter();
+        } finally {
+            lock.unlock();
+        }
+        if (next != null) {
+            next.sink.success(next);
+        }
+    }
+
+    private void onSample(Permit permit, Throwable error) {
+        if (!isRejection(error)) {
+            adjustLimit(permit, isDropped(error), false);
+        }
+    }
+
+    /**
+     * A cancelled call's elapsed time is only a lower bound on its latency: it may show overload, but neither raises
+     * the limit nor becomes part of the baseline.
+     */
+    private void onCancel(Permit permit) {
+        adjustLimit(permit, false, true);
+    }
+
+    private void adjustLimit(Permit permit, boolean dropped, boolean cancelled) {
+        long now = nanoClock.getAsLong();
+        Permit next;
+        int changedLimit = -1;
+        lock.lock();
+        try {
+            boolean slow = !dropped
+                    && baselines.get(permit.operation).isSlow(now - permit.startNanos, now, !cancelled);
+            if (dropped || slow) {
+                if (permit.startNanos >= lastDecreaseNanos) {
+                    limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+                    lastDecreaseNanos = now;
+                }
+            } else if (!cancelled && permit.inFlightAtStart * 2 >= limit) {
+                limit = Math.min(settings.getMaxLimit(), limit + 1 / limit);
+            }
+            next = grantNextWaiter();
+            if (currentLimit() != reportedLimit) {
+                reportedLimit = currentLimit();
+                changedLimit = reportedLimit;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (changedLimit >= 0) {
+            metrics.recordConcurrencyLimit(changedLimit);
+        }
+        if (next != null) {
+            next.sink.success(next);
+        }
+    }
+
+    /**
+     * Hands a free slot to the longest waiting call, if any; the caller delivers it outside the lock.
+     */
+    private Permit grantNextWaiter() {
+        while (inFlightCalls < currentLimit() && !waiters.isEmpty()) {
+            Permit waiter = waiters.pollFirst();
+            if (waiter.grant(nanoClock.getAsLong(), inFlightCalls + 1)) {
+                inFlightCalls++;
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private void shed(Permit permit) {
+        metrics.recordShed(permit.operation);
+        permit.sink.error(new MovieServiceBulkheadFullException("Movie service concurrency limit of " + limit()
+                + " reached; " + permit.operation.operationName() + " was not attempted"));
+    }
+
+    /**
+     * Calls rejected by an inner interceptor say nothing about the movie service.
+     */
+    private static boolean isRejection(Throwable error) {
+        return error instanceof MovieServiceBulkheadFullException || error instanceof MovieServiceCircuitOpenException;
+    }
+
+    private static boolean isDropped(Throwable error) {
+        if (error == null) {
+            return false;
+        }
+        if (!(error instanceof MovieErrorResponse)) {
+            return true;
+        }
+        int statusCode = ((MovieErrorResponse) error).getStatusCode();
+        return statusCode == 0 || statusCode == HttpStatus.TOO_MANY_REQUESTS.value()
+                || statusCode == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    /**
+     * A call's claim on a slot: waiting in the queue, granted a slot but not yet started, started, or abandoned
+     * because it timed out or was cancelled while waiting. A call cancelled between being granted and starting gives
+     * its slot back.
+     */
+    private final class Permit {
+        private final MovieOperation operation;
+        private final MonoSink<Permit> sink;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private long startNanos;
+        private int inFlightAtStart;
+        private volatile Disposable expiry;
+
+        private Permit(MovieOperation operation, MonoSink<Permit> sink) {
+            this.operation = operation;
+            this.sink = sink;
+        }
+
+        private boolean grant(long nowNanos, int inFlight) {
+            startNanos = nowNanos;
+            inFlightAtStart = inFlight;
+            if (!state.compareAndSet(WAITING, GRANTED)) {
+                return false;
+            }
+            cancelExpiry();
+            return true;
+        }
+
+        private boolean start() {
+            return state.compareAndSet(GRANTED, STARTED);
+        }
+
+        private void expireAfter(long waitNanos) {
+            expiry = Schedulers.parallel().schedule(() -> {
+                if (reject()) {
+                    dequeue();
+                    shed(this);
+                }
+            }, waitNanos, TimeUnit.NANOSECONDS);
+            if (state.get() != WAITING) {
+                cancelExpiry();
+            }
+        }
+
+        /**
+         * Gives up a call still waiting for a slot; returns whether it was still waiting.
+         */
+        private boolean reject() {
+            return state.compareAndSet(WAITING, ABANDONED);
+        }
+
+        private void abandon() {
+            if (state.compareAndSet(WAITING, ABANDONED)) {
+                cancelExpiry();
+                dequeue();
+            } else if (state.compareAndSet(GRANTED, ABANDONED)) {
+                release();
+            }
+        }
+
+        private void dequeue() {
+            lock.lock();
+            try {
+                waiters.remove(this);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void cancelExpiry() {
+            Disposable scheduled = expiry;
+            if (scheduled != null) {
+                scheduled.dispose();
+            }
+        }
+    }
+
+    /**
+     * The lowest latency of an operation in the current and the previous {@code baselineWindow}.
+     */
+    private final class Baseline {
+        private long windowStartNanos;
+        private long currentMin = Long.MAX_VALUE;
+        private long previousMin = Long.MAX_VALUE;
+
+        private Baseline(long nowNanos) {
+            this.windowStartNanos = nowNanos;
+        }
+
+        /**
+         * Whether {@code latencyNanos} exceeds the tolerated multiple of the baseline; if {@code record}, the sample
+         * then becomes part of it.
+         */
+        private boolean isSlow(long latencyNanos, long nowNanos, boolean record) {
+            long elapsed = nowNanos - windowStartNanos;
+            if (elapsed >= baselineWindowNanos) {
+                previousMin = elapsed >= 2 * baselineWindowNanos ? Long.MAX_VALUE : currentMin;
+                currentMin = Long.MAX_VALUE;
+                windowStartNanos = nowNanos;
+            }
+            long baseline = Math.min(previousMin, currentMin);
+            if (record) {
+                currentMin = Math.min(currentMin, latencyNanos);
+            }
+            return baseline != Long.MAX_VALUE && latencyNanos > baseline * settings.getLatencyTolerance();
+        }
+    }
+}
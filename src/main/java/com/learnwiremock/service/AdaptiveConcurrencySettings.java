@@ -0,0 +1,40 @@
+package com.learnwiremock.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for {@link AdaptiveConcurrencyMovieCallInterceptor}. The limit starts at {@code initialLimit} and
+ * moves between {@code minLimit} and {@code maxLimit}; {@code maxLimit} should not exceed the connection pool size,
+ * so that calls wait in the limiter's bounded queue rather than in the pool's pending-acquire queue.
+ * <p>
+ * A call counts as a sign of overload if it fails without a response, with 429 or 503, or takes longer than
+ * {@code latencyTolerance} times the lowest latency of its operation seen over the last one to two
+ * {@code baselineWindow}s.
+ */
+@Value
+@Builder
+public class AdaptiveConcurrencySettings {
+    @Builder.Default
+    int initialLimit = 20;
+    @Builder.Default
+    int minLimit = 1;
+    @Builder.Default
+    int maxLimit = 200;
+    @Builder.Default
+    double backoffRatio = 0.9;
+    @Builder.Default
+    double latencyTolerance = 2.0;
+    @Builder.Default
+    Duration baselineWindow = Duration.ofSeconds(30);
+    @Builder.Default
+    int maxQueuedCalls = 100;
+    @Builder.Default
+    Duration maxQueueWait = Duration.ofMillis(50);
+
+    public static AdaptiveConcurrencySettings defaults() {
+        return AdaptiveConcurrencySettings.builder().build();
+    }
+}
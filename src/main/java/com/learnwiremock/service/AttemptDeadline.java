@@ -0,0 +1,27 @@
+package com.learnwiremock.service;
+
+import reactor.util.context.Context;
+
+/**
+ * Carried in the subscriber context of an attempt by {@link ResilienceMovieCallInterceptor}, and marked expired just
+ * before the attempt is cancelled because its deadline passed. Lets the exchange filters beneath it, such as
+ * {@link MovieServiceLoadBalancer}, tell a timed-out exchange from one cancelled for reasons unrelated to the movie
+ * service, like a losing hedge or a caller that gave up.
+ */
+final class AttemptDeadline {
+    private static final Object KEY = AttemptDeadline.class;
+
+    private volatile boolean expired;
+
+    void expire() {
+        expired = true;
+    }
+
+    Context putIn(Context context) {
+        return context.put(KEY, this);
+    }
+
+    static boolean hasExpired(Context context) {
+        return context.<AttemptDeadline>getOrEmpty(KEY).map(deadline -> deadline.expired).orElse(false);
+    }
+}
@@ -0,0 +1,25 @@
+package com.learnwiremock.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link ReactiveMoviesRestClient#applyMutations}. {@code window} is the number of mutations kept in
+ * flight at once; throughput grows with it until the connection pool or the movie service saturates.
+ */
+@Value
+@Builder
+public class BulkMutationSettings {
+    @Builder.Default
+    int window = 32;
+    @Builder.Default
+    int maxRetries = 3;
+    @Builder.Default
+    Duration firstBackoff = Duration.ofMillis(100);
+
+    public static BulkMutationSettings defaults() {
+        return BulkMutationSettings.builder().build();
+    }
+}
@@ -0,0 +1,249 @@
+package com.learnwiremock.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.exception.MovieErrorResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Read-through cache in front of the id, name and year lookups. Entries are bounded per cache and evicted with
+ * Caffeine's W-TinyLFU policy; a 404 is cached for {@link MovieCacheSettings#getNotFoundTtl()} and rethrown on hits.
+ * Mutations made through this client evict every entry that references the touched id, name or year.
+ * <p>
+ * Misses are loaded on the {@link ReactiveMoviesRestClient} and only the calling thread waits for them, so no
+ * exchange runs while Caffeine holds a lock; concurrent misses for the same key share one load.
+ * <p>
+ * Cached lists are shared between callers and therefore unmodifiable.
+ */
+public class CachingMoviesRestClient extends MoviesRestClient {
+    private final ReactiveMoviesRestClient reactiveMoviesRestClient;
+    private final AsyncCache<Integer, CachedLookup<Movie>> movieByIdCache;
+    private final AsyncCache<String, CachedLookup<List<Movie>>> moviesByNameCache;
+    private final AsyncCache<Integer, CachedLookup<List<Movie>>> moviesByYearCache;
+
+    public CachingMoviesRestClient(WebClient webClient, MovieCacheSettings settings) {
+        this(new ReactiveMoviesRestClient(webClient), settings);
+    }
+
+    public CachingMoviesRestClient(ReactiveMoviesRestClient reactiveMoviesRestClient, MovieCacheSettings settings) {
+        super(reactiveMoviesRestClient);
+        this.reactiveMoviesRestClient = reactiveMoviesRestClient;
+        this.movieByIdCache = newCache(settings.getMovieByIdTtl(), settings);
+        this.moviesByNameCache = newCache(settings.getMoviesByNameTtl(), settings);
+        this.moviesByYearCache = newCache(settings.getMoviesByYearTtl(), settings);
+    }
+
+    @Override
+    public Movie retrieveMovieById(Integer movieId) {
+        return lookupMovieById(movieId).get();
+    }
+
+    @Override
+    public Optional<Movie> findMovieById(Integer movieId) {
+        return lookupMovieById(movieId).find();
+    }
+
+    @Override
+    public List<Movie> retrieveMoviesByName(String movieName) {
+        return lookup(moviesByNameCache, movieName, name -> reactiveMoviesRestClient.retrieveMoviesByName(name)
+                .collectList()
+                .map(Collections::unmodifiableList)).get();
+    }
+
+    @Override
+    public List<Movie> retrieveMoviesByYear(Integer year) {
+        return lookup(moviesByYearCache, year, y -> reactiveMoviesRestClient.retrieveMoviesByYear(y)
+                .collectList()
+                .map(Collections::unmodifiableList)).get();
+    }
+
+    @Override
+    public Movie addMovie(Movie newMovie) {
+        Movie addedMovie = super.addMovie(newMovie);
+        invalidate(addedMovie);
+        return addedMovie;
+    }
+
+    @Override
+    public Movie editMovie(Integer movieId, Movie editMovie) {
+        Movie editedMovie = super.editMovie(movieId, editMovie);
+        invalidateMovieId(movieId.longValue());
+        invalidate(editedMovie);
+        return editedMovie;
+    }
+
+    @Override
+    public String deleteMovie(Integer movieId) {
+        String result = super.deleteMovie(movieId);
+        invalidateMovieId(movieId.longValue());
+        return result;
+    }
+
+    @Override
+    public String deleteMovieByName(String movieName) {
+        String result = super.deleteMovieByName(movieName);
+        moviesByNameCache.synchronous().invalidate(movieName);
+        movieByIdCache.synchronous().asMap().values()
+                .removeIf(lookup -> lookup.matches(movie -> movieName.equals(movie.getName())));
+        moviesByNameCache.synchronous().asMap().values()
+                .removeIf(lookup -> lookup.containsAny(movie -> movieName.equals(movie.getName())));
+        moviesByYearCache.synchronous().asMap().values()
+                .removeIf(lookup -> lookup.containsAny(movie -> movieName.equals(movie.getName())));
+        return result;
+    }
+
+    public CacheStats movieByIdCacheStats() {
+        return movieByIdCache.synchronous().stats();
+    }
+
+    public CacheStats moviesByNameCacheStats() {
+        return moviesByNameCache.synchronous().stats();
+    }
+
+    public CacheStats moviesByYearCacheStats() {
+        return moviesByYearCache.synchronous().stats();
+    }
+
+    public void invalidateAll() {
+        movieByIdCache.synchronous().invalidateAll();
+        moviesByNameCache.synchronous().invalidateAll();
+        moviesByYearCache.synchronous().invalidateAll();
+    }
+
+    private void invalidate(Movie movie) {
+        if (movie == null) {
+            return;
+        }
+        if (movie.getMovie_id() != null) {
+            invalidateMovieId(movie.getMovie_id());
+        }
+        if (movie.getYear() != null) {
+            moviesByYearCache.synchronous().invalidate(movie.getYear());
+        }
+        if (movie.getName() != null) {
+            String name = movie.getName().toLowerCase();
+            moviesByNameCache.asMap().keySet().removeIf(query -> name.contains(query.toLowerCase()));
+        }
+    }
+
+    private void invalidateMovieId(long movieId) {
+        if (movieId <= Integer.MAX_VALUE) {
+            movieByIdCache.synchronous().invalidate((int) movieId);
+        }
+        moviesByNameCache.synchronous().asMap().values()
+                .removeIf(lookup -> lookup.containsAny(movie -> hasId(movie, movieId)));
+        moviesByYearCache.synchronous().asMap().values()
+                .removeIf(lookup -> lookup.containsAny(movie -> hasId(movie, movieId)));
+    }
+
+    private static boolean hasId(Movie movie, long movieId) {
+        return movie.getMovie_id() != null && movie.getMovie_id() == movieId;
+    }
+
+    private CachedLookup<Movie> lookupMovieById(Integer movieId) {
+        return lookup(movieByIdCache, movieId, reactiveMoviesRestClient::retrieveMovieById);
+    }
+
+    /**
+     * Only results and 404s are cached. Any other failure completes the shared future exceptionally; it is removed
+     * before the caller sees the error, rather than by Caffeine's own completion callback, so an immediate retry
+     * loads again.
+     */
+    private static <K, T> CachedLookup<T> lookup(AsyncCache<K, CachedLookup<T>> cache, K key, Function<K, Mono<T>> loader) {
+        CompletableFuture<CachedLookup<T>> lookup = cache.get(key, (k, executor) -> loader.apply(k)
+                .map(CachedLookup::found)
+                .onErrorResume(MovieErrorResponse.class,
+                        e -> e.isNotFound() ? Mono.just(CachedLookup.notFound(e)) : Mono.error(e))
+                .toFuture());
+        return Mono.fromFuture(lookup)
+                .doOnError(e -> cache.asMap().remove(key, lookup))
+                .block();
+    }
+
+    private static <K, T> AsyncCache<K, CachedLookup<T>> newCache(Duration ttl, MovieCacheSettings settings) {
+        long foundTtlNanos = ttl.toNanos();
+        long notFoundTtlNanos = settings.getNotFoundTtl().toNanos();
+        return Caffeine.newBuilder()
+                .maximumWeight(settings.getMaximumMoviesPerCache())
+                .<K, CachedLookup<T>>weigher((key, lookup) -> lookup.weight())
+                .expireAfter(new Expiry<K, CachedLookup<T>>() {
+                    @Override
+                    public long expireAfterCreate(K key, CachedLookup<T> lookup, long currentTime) {
+                        return lookup.error == null ? foundTtlNanos : notFoundTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, CachedLookup<T> lookup, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, lookup, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, CachedLookup<T> lookup, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    private static final class CachedLookup<T> {
+        private final T value;
+        private final MovieErrorResponse error;
+
+        private CachedLookup(T value, MovieErrorResponse error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        static <T> CachedLookup<T> found(T value) {
+            return new CachedLookup<>(value, null);
+        }
+
+        static <T> CachedLookup<T> notFound(MovieErrorResponse error) {
+            return new CachedLookup<>(null, error);
+        }
+
+        /**
+         * Throws a fresh stackless copy of a cached 404 on every hit, so callers that add suppressed exceptions or
+         * otherwise mutate it do not affect each other.
+         */
+        T get() {
+            if (error != null) {
+                throw new MovieErrorResponse(error.getStatusCode(), error.getMessage(),
+                        error.getResponseBodyAsString().getBytes(StandardCharsets.UTF_8), true);
+            }
+            return value;
+        }
+
+        Optional<T> find() {
+            return Optional.ofNullable(value);
+        }
+
+        int weight() {
+            return value instanceof Collection ? Math.max(1, ((Collection<?>) value).size()) : 1;
+        }
+
+        boolean matches(Predicate<Movie> predicate) {
+            return value instanceof Movie && predicate.test((Movie) value);
+        }
+
+        boolean containsAny(Predicate<Movie> predicate) {
+            return value instanceof Collection
+                    && ((Collection<?>) value).stream().anyMatch(movie -> predicate.test((Movie) movie));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.learnwiremock.service;
+
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker. While closed it tracks the outcome of the last {@code window} calls and opens once
+ * the failure rate over a full window reaches the threshold. After the open duration it lets a few trial calls
+ * through: if they all succeed it closes again with a fresh window, a single failure reopens it.
+ * <p>
+ * The state is guarded by the breaker's monitor; every method does constant work while holding it.
+ */
+final class CircuitBreaker {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int nextOutcome;
+    private int recordedOutcomes;
+    private int failures;
+    private long openedAt;
+    private int trialCallsStarted;
+    private int trialCallsSucceeded;
+
+    CircuitBreaker(int window, double failureRate, Duration openDuration, int halfOpenCalls) {
+        this.outcomes = new boolean[window];
+        this.failureThreshold = Math.max(1, (int) Math.ceil(window * failureRate));
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialCallsStarted = 0;
+            trialCallsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialCallsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialCallsStarted++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialCallsSucceeded >= halfOpenCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedOutcomes == outcomes.length && failures >= failureThreshold) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Gives a trial call's permit back when its subscriber cancels before it completed, or when the client rejected
+     * the call without contacting the service.
+     */
+    synchronized void onCancel() {
+        if (state == State.HALF_OPEN && trialCallsStarted > trialCallsSucceeded) {
+            trialCallsStarted--;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recordedOutcomes == outcomes.length) {
+            if (outcomes[nextOutcome]) {
+                failures--;
+            }
+        } else {
+            recordedOutcomes++;
+        }
+        outcomes[nextOutcome] = failure;
+        if (failure) {
+            failures++;
+        }
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        nextOutcome = 0;
+        recordedOutcomes = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.catalog.MovieCatalog;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers, per URI, the {@code ETag} and {@code Last-Modified} validators of the last full response together with
+ * its decoded result, so the next request can be made conditional and a {@code 304 Not Modified} answered from the
+ * remembered result without a body to parse. Responses without validators are not remembered.
+ * <p>
+ * Results are kept as a compact {@link MovieCatalog}; only the latest representation per URI is kept.
+ */
+final class ConditionalRequests {
+    private final ConcurrentMap<String, Validated> validated = new ConcurrentHashMap<>();
+
+    Validated lookup(String uri) {
+        return validated.get(uri);
+    }
+
+    void remember(String uri, HttpHeaders headers, MovieCatalog catalog) {
+        validated.put(uri, new Validated(headers.getETag(), headers.getLastModified(), catalog));
+    }
+
+    void forget(String uri) {
+        validated.remove(uri);
+    }
+
+    static boolean hasValidators(HttpHeaders headers) {
+        return headers.getETag() != null || headers.getLastModified() >= 0;
+    }
+
+    static final class Validated {
+        private final String eTag;
+        private final long lastModified;
+        private final MovieCatalog catalog;
+
+        private Validated(String eTag, long lastModified, MovieCatalog catalog) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.catalog = catalog;
+        }
+
+        MovieCatalog catalog() {
+            return catalog;
+        }
+
+        void addPreconditions(HttpHeaders headers) {
+            if (eTag != null) {
+                headers.setIfNoneMatch(eTag);
+            }
+            if (lastModified >= 0) {
+                headers.setIfModifiedSince(lastModified);
+            }
+        }
+    }
+}
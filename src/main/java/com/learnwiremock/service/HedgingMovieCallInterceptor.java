@@ -0,0 +1,152 @@
+package com.learnwiremock.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Hedges idempotent lookups: if a call has not completed after the configured percentile of its operation's recent
+ * latency, the same request is sent again and whichever response arrives first is used, the other exchange being
+ * cancelled. A call that fails before the hedge is sent is not hedged, and a failed hedge leaves the original request
+ * to decide the outcome. Hedges are limited by the budget described in {@link HedgingSettings} and reported to
+ * {@link MoviesClientMetrics#recordHedge}.
+ * <p>
+ * Place it after {@link ResilienceMovieCallInterceptor}, so that a deadline covers both requests, and before
+ * {@link AdaptiveConcurrencyMovieCallInterceptor} and {@link MetricsMovieCallInterceptor}, which then see each
+ * request separately. List lookups are collected before the race, so the winner is the first complete response.
+ */
+public final class HedgingMovieCallInterceptor implements MovieCallInterceptor {
+    private static final Set<MovieOperation> LOOKUPS = EnumSet.of(MovieOperation.RETRIEVE_ALL_MOVIES,
+            MovieOperation.RETRIEVE_MOVIE_BY_ID, MovieOperation.RETRIEVE_MOVIES_BY_NAME,
+            MovieOperation.RETRIEVE_MOVIES_BY_YEAR);
+    private static final long HEDGE = 1_000_000;
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final MoviesClientMetrics metrics;
+    private final Map<MovieOperation, OperationLatency> latencies = new EnumMap<>(MovieOperation.class);
+    private final long budgetPerCall;
+    private final long maxBudget;
+    private final AtomicLong budget;
+
+    public HedgingMovieCallInterceptor(HedgingSettings settings) {
+        this(settings, MoviesClientMetrics.NOOP);
+    }
+
+    public HedgingMovieCallInterceptor(HedgingSettings settings, MoviesClientMetrics metrics) {
+        for (MovieOperation operation : settings.getOperations()) {
+            if (!LOOKUPS.contains(operation)) {
+                throw new IllegalArgumentException("Only lookups can be hedged: " + operation.operationName());
+            }
+            latencies.put(operation, new OperationLatency(settings));
+        }
+        this.metrics = metrics;
+        this.budgetPerCall = (long) (settings.getBudgetRatio() * HEDGE);
+        this.maxBudget = settings.getMaxBurst() * HEDGE;
+        this.budget = new AtomicLong(maxBudget);
+    }
+
+    @Override
+    public <T> Mono<T> interceptMono(MovieOperation operation, Mono<T> call) {
+        OperationLatency latency = latencies.get(operation);
+        return latency == null ? call : Mono.defer(() -> hedged(operation, latency, call));
+    }
+
+    @Override
+    public <T> Flux<T> interceptFlux(MovieOperation operation, Flux<T> call) {
+        OperationLatency latency = latencies.get(operation);
+        return latency == null ? call : Mono.defer(() -> hedged(operation, latency, call.collectList()))
+                .flatMapIterable(Function.identity());
+    }
+
+    private <T> Mono<T> hedged(MovieOperation operation, OperationLatency latency, Mono<T> call) {
+        deposit();
+        Mono<T> hedge = Mono.delay(Duration.ofNanos(latency.hedgeDelayNanos()))
+                .flatMap(tick -> tryHedge(operation)
+                        ? latency.timed(call).onErrorResume(e -> Mono.never())
+                        : Mono.never());
+        return Mono.first(latency.timed(call), hedge);
+    }
+
+    private void deposit() {
+        long current = budget.get();
+        while (current < maxBudget && !budget.compareAndSet(current, Math.min(maxBudget, current + budgetPerCall))) {
+            current = budget.get();
+        }
+    }
+
+    private boolean tryHedge(MovieOperation operation) {
+        long current = budget.get();
+        while (current >= HEDGE) {
+            if (budget.compareAndSet(current, current - HEDGE)) {
+                metrics.recordHedge(operation);
+                return true;
+            }
+            current = budget.get();
+        }
+        return false;
+    }
+
+    /**
+     * Latencies of an operation's successful requests over the current and the previous {@code percentileWindow},
+     * and the hedge delay derived from them, recomputed at most every 100 ms. A request cancelled before it completed,
+     * such as the slower side of a hedge, is recorded with the time it had run, a lower bound on its latency; leaving
+     * it out would drop exactly the slow requests and pull the percentile, and with it the hedge delay, down.
+     */
+    private static final class OperationLatency {
+        private final HedgingSettings settings;
+        private final long windowNanos;
+        private final AtomicLong windowEndNanos;
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram previous = new LatencyHistogram();
+        private volatile long hedgeDelayNanos;
+        private volatile long refreshAtNanos;
+
+        private OperationLatency(HedgingSettings settings) {
+            this.settings = settings;
+            this.windowNanos = settings.getPercentileWindow().toNanos();
+            long now = System.nanoTime();
+            this.windowEndNanos = new AtomicLong(now + windowNanos);
+            this.hedgeDelayNanos = settings.getInitialDelay().toNanos();
+            this.refreshAtNanos = now;
+        }
+
+        private <T> Mono<T> timed(Mono<T> call) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return call.doOnSuccess(value -> record(System.nanoTime() - start))
+                        .doOnCancel(() -> record(System.nanoTime() - start));
+            });
+        }
+
+        private void record(long durationNanos) {
+            long now = System.nanoTime();
+            long windowEnd = windowEndNanos.get();
+            if (now - windowEnd >= 0 && windowEndNanos.compareAndSet(windowEnd, now + windowNanos)) {
+                previous = now - windowEnd >= windowNanos ? new LatencyHistogram() : current;
+                current = new LatencyHistogram();
+            }
+            current.record(durationNanos);
+        }
+
+        private long hedgeDelayNanos() {
+            long now = System.nanoTime();
+            if (now - refreshAtNanos >= 0) {
+                refreshAtNanos = now + DELAY_REFRESH_NANOS;
+                LatencyHistogram samples = previous.count() >= settings.getMinSamples() ? previous : current;
+                hedgeDelayNanos = samples.count() < settings.getMinSamples()
+                        ? settings.getInitialDelay().toNanos()
+                        : Math.max(settings.getMinDelay().toNanos(),
+                        samples.valueAtPercentile(settings.getPercentile(), TimeUnit.NANOSECONDS));
+            }
+            return hedgeDelayNanos;
+        }
+    }
+}
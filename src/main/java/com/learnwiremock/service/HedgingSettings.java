@@ -0,0 +1,45 @@
+package com.learnwiremock.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Tuning knobs for {@link HedgingMovieCallInterceptor}. A call to one of {@code operations} that has not completed
+ * after the {@code percentile} latency of its operation gets a second, hedge request. Until {@code minSamples}
+ * successful calls have been seen in the current or previous {@code percentileWindow}, the delay is
+ * {@code initialDelay}; it is never shorter than {@code minDelay}.
+ * <p>
+ * Hedges are paid for from a budget that every hedgeable call adds {@code budgetRatio} to, up to
+ * {@code maxBurst} hedges, so hedging adds at most about {@code budgetRatio} extra load however slow the movie
+ * service gets.
+ */
+@Value
+@Builder
+public class HedgingSettings {
+    @Builder.Default
+    Set<MovieOperation> operations = Collections.unmodifiableSet(EnumSet.of(MovieOperation.RETRIEVE_MOVIE_BY_ID,
+            MovieOperation.RETRIEVE_MOVIES_BY_NAME, MovieOperation.RETRIEVE_MOVIES_BY_YEAR));
+    @Builder.Default
+    double percentile = 95;
+    @Builder.Default
+    Duration initialDelay = Duration.ofMillis(100);
+    @Builder.Default
+    Duration minDelay = Duration.ofMillis(5);
+    @Builder.Default
+    int minSamples = 50;
+    @Builder.Default
+    Duration percentileWindow = Duration.ofMinutes(1);
+    @Builder.Default
+    double budgetRatio = 0.05;
+    @Builder.Default
+    int maxBurst = 10;
+
+    public static HedgingSettings defaults() {
+        return HedgingSettings.builder().build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.learnwiremock.service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process {@link MoviesClientMetrics} for services without a metrics registry: per-operation call and error
+ * counters plus a {@link LatencyHistogram} for every operation and for connection-pool acquires. Everything
+ * on the success path is preallocated.
+ */
+public class HistogramMoviesClientMetrics implements MoviesClientMetrics {
+    private final Map<MovieOperation, OperationMetrics> operations = new EnumMap<>(MovieOperation.class);
+    private final LatencyHistogram connectionAcquireLatency = new LatencyHistogram();
+    private volatile int concurrencyLimit;
+
+    public HistogramMoviesClientMetrics() {
+        for (MovieOperation operation : MovieOperation.values()) {
+            operations.put(operation, new OperationMetrics());
+        }
+    }
+
+    @Override
+    public void recordSuccess(MovieOperation operation, long durationNanos) {
+        OperationMetrics metrics = operations.get(operation);
+        metrics.calls.increment();
+        metrics.latency.record(durationNanos);
+    }
+
+    @Override
+    public void recordFailure(MovieOperation operation, int statusCode, long durationNanos) {
+        OperationMetrics metrics = operations.get(operation);
+        metrics.calls.increment();
+        metrics.errorsByStatusCode.computeIfAbsent(statusCode, status -> new LongAdder()).increment();
+        metrics.latency.record(durationNanos);
+    }
+
+    @Override
+    public void recordConnectionAcquire(long durationNanos) {
+        connectionAcquireLatency.record(durationNanos);
+    }
+
+    @Override
+    public void recordConcurrencyLimit(int limit) {
+        concurrencyLimit = limit;
+    }
+
+    @Override
+    public void recordShed(MovieOperation operation) {
+        operations.get(operation).shed.increment();
+    }
+
+    @Override
+    public void recordHedge(MovieOperation operation) {
+        operations.get(operation).hedges.increment();
+    }
+
+    public long calls(MovieOperation operation) {
+        return operations.get(operation).calls.sum();
+    }
+
+    public long errors(MovieOperation operation) {
+        return operations.get(operation).errorsByStatusCode.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * @return error counts keyed by HTTP status, with 0 for calls that failed before a response was received
+     */
+    public Map<Integer, Long> errorsByStatusCode(MovieOperation operation) {
+        Map<Integer, Long> errors = new TreeMap<>();
+        operations.get(operation).errorsByStatusCode.forEach((status, count) -> errors.put(status, count.sum()));
+        return Collections.unmodifiableMap(errors);
+    }
+
+    public LatencyHistogram latency(MovieOperation operation) {
+        return operations.get(operation).latency;
+    }
+
+    public LatencyHistogram connectionAcquireLatency() {
+        return connectionAcquireLatency;
+    }
+
+    /**
+     * @return the last concurrency limit reported, or 0 if no adaptive limit is in use
+     */
+    public int concurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public long shed(MovieOperation operation) {
+        return operations.get(operation).shed.sum();
+    }
+
+    public long hedges(MovieOperation operation) {
+        return operations.get(operation).hedges.sum();
+    }
+
+    private static final class OperationMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder hedges = new LongAdder();
+        private final ConcurrentMap<Integer, LongAdder> errorsByStatusCode = new ConcurrentHashMap<>();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
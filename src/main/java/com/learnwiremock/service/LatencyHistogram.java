@@ -0,0 +1,90 @@
+package com.learnwiremock.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear latency histogram in the style of HdrHistogram: every power of two is split into 16 linear
+ * sub-buckets, so any recorded value is reported within about 6% of its true value across the whole {@code long}
+ * range. Recording is a handful of atomic increments and never allocates.
+ * <p>
+ * Reads are not atomic with respect to concurrent writes; a snapshot taken under load may be off by the few values
+ * recorded while it was being computed.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long durationNanos) {
+        long value = Math.max(0, durationNanos);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long count() {
+        return totalCount.sum();
+    }
+
+    public long max(TimeUnit unit) {
+        return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public double mean(TimeUnit unit) {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) unit.convert(totalNanos.sum(), TimeUnit.NANOSECONDS) / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the highest value equivalent to the one at {@code percentile}, or 0 if nothing has been recorded
+     */
+    public long valueAtPercentile(double percentile, TimeUnit unit) {
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts.get(index);
+            if (seen >= target) {
+                return unit.convert(Math.min(highestEquivalentValue(index), maxNanos.get()), TimeUnit.NANOSECONDS);
+            }
+        }
+        return max(unit);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (highestBit - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long lowestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int highestBit = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << (highestBit - SUB_BUCKET_BITS);
+    }
+
+    static long highestEquivalentValue(int index) {
+        return index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : lowestEquivalentValue(index + 1) - 1;
+    }
+}
@@ -0,0 +1,37 @@
+package com.learnwiremock.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for {@link MovieServiceLoadBalancer}. A replica that fails {@code consecutiveFailuresToEject} calls in
+ * a row, with a connection error or a 5xx, is ejected for {@code ejectionDuration}, doubling up to
+ * {@code maxEjectionDuration} each time it is ejected again before a call to it has succeeded; at most
+ * {@code maxEjectedPercent} of the replicas are ejected at once.
+ * <p>
+ * Replicas are compared by a moving average of their latency with time constant {@code latencyDecay}, in which a
+ * failure counts as a call that took {@code failurePenalty}. The average of a replica that is not being called decays
+ * towards zero, so a replica that was slow or failing is tried again after a few multiples of {@code latencyDecay}.
+ */
+@Value
+@Builder
+public class LoadBalancingSettings {
+    @Builder.Default
+    int consecutiveFailuresToEject = 3;
+    @Builder.Default
+    Duration ejectionDuration = Duration.ofSeconds(10);
+    @Builder.Default
+    Duration maxEjectionDuration = Duration.ofMinutes(2);
+    @Builder.Default
+    int maxEjectedPercent = 50;
+    @Builder.Default
+    Duration latencyDecay = Duration.ofSeconds(10);
+    @Builder.Default
+    Duration failurePenalty = Duration.ofSeconds(1);
+
+    public static LoadBalancingSettings defaults() {
+        return LoadBalancingSettings.builder().build();
+    }
+}
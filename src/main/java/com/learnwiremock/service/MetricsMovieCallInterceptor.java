@@ -0,0 +1,45 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.exception.MovieErrorResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times every call and reports it to a {@link MoviesClientMetrics} once it completes or fails. Calls cancelled by
+ * the subscriber are not recorded.
+ */
+public final class MetricsMovieCallInterceptor implements MovieCallInterceptor {
+    private final MoviesClientMetrics metrics;
+
+    public MetricsMovieCallInterceptor(MoviesClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> Mono<T> interceptMono(MovieOperation operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doOnSuccessOrError((value, error) -> record(operation, start, error));
+        });
+    }
+
+    @Override
+    public <T> Flux<T> interceptFlux(MovieOperation operation, Flux<T> call) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnComplete(() -> record(operation, start, null))
+                    .doOnError(error -> record(operation, start, error));
+        });
+    }
+
+    private void record(MovieOperation operation, long start, Throwable error) {
+        long durationNanos = System.nanoTime() - start;
+        if (error == null) {
+            metrics.recordSuccess(operation, durationNanos);
+        } else {
+            int statusCode = error instanceof MovieErrorResponse ? ((MovieErrorResponse) error).getStatusCode() : 0;
+            metrics.recordFailure(operation, statusCode, durationNanos);
+        }
+    }
+}
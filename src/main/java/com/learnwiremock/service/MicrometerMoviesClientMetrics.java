@@ -0,0 +1,124 @@
+package com.learnwiremock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes client metrics to a Micrometer {@link MeterRegistry}:
+ * <ul>
+ * <li>{@code movies.client.requests}, a timer tagged with {@code operation}, {@code outcome} ({@code SUCCESS} or
+ * {@code ERROR}) and {@code status} ({@code 2xx} on success, otherwise the HTTP status or {@code NONE} if no
+ * response was received)</li>
+ * <li>{@code movies.client.connection.acquire}, a timer for connection-pool acquires</li>
+ * <li>{@code movies.client.concurrency.limit}, a gauge of the adaptive concurrency limit, registered once a limit
+ * is first reported</li>
+ * <li>{@code movies.client.requests.shed}, a counter tagged with {@code operation} of calls rejected by the
+ * adaptive concurrency limit</li>
+ * <li>{@code movies.client.requests.hedged}, a counter tagged with {@code operation} of hedge requests sent</li>
+ * </ul>
+ * Success timers, shed and hedge counters are registered up front so recording a successful call never looks up a
+ * meter. Micrometer is an optional dependency; services that use this class must provide {@code micrometer-core}
+ * themselves.
+ */
+public class MicrometerMoviesClientMetrics implements MoviesClientMetrics {
+    static final String REQUESTS_METER = "movies.client.requests";
+    static final String CONNECTION_ACQUIRE_METER = "movies.client.connection.acquire";
+    static final String CONCURRENCY_LIMIT_METER = "movies.client.concurrency.limit";
+    static final String SHED_METER = "movies.client.requests.shed";
+    static final String HEDGE_METER = "movies.client.requests.hedged";
+
+    private final MeterRegistry registry;
+    private final Map<MovieOperation, Timer> successTimers = new EnumMap<>(MovieOperation.class);
+    private final Map<MovieOperation, ConcurrentMap<Integer, Timer>> failureTimers = new EnumMap<>(MovieOperation.class);
+    private final Map<MovieOperation, Counter> shedCounters = new EnumMap<>(MovieOperation.class);
+    private final Map<MovieOperation, Counter> hedgeCounters = new EnumMap<>(MovieOperation.class);
+    private final Timer connectionAcquireTimer;
+    private volatile AtomicInteger concurrencyLimit;
+
+    public MicrometerMoviesClientMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (MovieOperation operation : MovieOperation.values()) {
+            successTimers.put(operation, requestTimer(operation, "SUCCESS", "2xx"));
+            failureTimers.put(operation, new ConcurrentHashMap<>());
+            shedCounters.put(operation, Counter.builder(SHED_METER)
+                    .description("Calls rejected by the adaptive concurrency limit without contacting the movie service")
+                    .tag("operation", operation.operationName())
+                    .register(registry));
+            hedgeCounters.put(operation, Counter.builder(HEDGE_METER)
+                    .description("Second requests sent for calls slower than the hedging delay")
+                    .tag("operation", operation.operationName())
+                    .register(registry));
+        }
+        this.connectionAcquireTimer = Timer.builder(CONNECTION_ACQUIRE_METER)
+                .description("Time spent waiting for a pooled connection to the movie service")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public void recordSuccess(MovieOperation operation, long durationNanos) {
+        successTimers.get(operation).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordFailure(MovieOperation operation, int statusCode, long durationNanos) {
+        failureTimers.get(operation)
+                .computeIfAbsent(statusCode, status -> requestTimer(operation, "ERROR",
+                        status == 0 ? "NONE" : String.valueOf(status)))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordConnectionAcquire(long durationNanos) {
+        connectionAcquireTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordConcurrencyLimit(int limit) {
+        AtomicInteger gauge = concurrencyLimit;
+        if (gauge == null) {
+            gauge = registerConcurrencyLimit();
+        }
+        gauge.set(limit);
+    }
+
+    @Override
+    public void recordShed(MovieOperation operation) {
+        shedCounters.get(operation).increment();
+    }
+
+    @Override
+    public void recordHedge(MovieOperation operation) {
+        hedgeCounters.get(operation).increment();
+    }
+
+    private synchronized AtomicInteger registerConcurrencyLimit() {
+        if (concurrencyLimit == null) {
+            AtomicInteger gauge = new AtomicInteger();
+            Gauge.builder(CONCURRENCY_LIMIT_METER, gauge, AtomicInteger::get)
+                    .description("Calls the client lets in flight to the movie service")
+                    .register(registry);
+            concurrencyLimit = gauge;
+        }
+        return concurrencyLimit;
+    }
+
+    private Timer requestTimer(MovieOperation operation, String outcome, String status) {
+        return Timer.builder(REQUESTS_METER)
+                .description("Calls to the movie service")
+                .tag("operation", operation.operationName())
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
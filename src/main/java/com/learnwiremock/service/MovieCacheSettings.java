@@ -0,0 +1,29 @@
+package com.learnwiremock.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for {@link CachingMoviesRestClient}. Each lookup cache is bounded by the number of movies it holds,
+ * so a by-year entry with twenty movies weighs twenty times as much as a by-id entry.
+ */
+@Value
+@Builder
+public class MovieCacheSettings {
+    @Builder.Default
+    Duration movieByIdTtl = Duration.ofMinutes(10);
+    @Builder.Default
+    Duration moviesByNameTtl = Duration.ofMinutes(5);
+    @Builder.Default
+    Duration moviesByYearTtl = Duration.ofMinutes(5);
+    @Builder.Default
+    Duration notFoundTtl = Duration.ofSeconds(30);
+    @Builder.Default
+    long maximumMoviesPerCache = 10_000;
+
+    public static MovieCacheSettings defaults() {
+        return MovieCacheSettings.builder().build();
+    }
+}
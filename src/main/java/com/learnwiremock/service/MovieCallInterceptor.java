@@ -0,0 +1,29 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.exception.MovieErrorResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decorates every exchange {@link ReactiveMoviesRestClient} makes. Interceptors see a single physical call, after
+ * lookup coalescing and after failures have been mapped to {@link MovieErrorResponse}, and are applied in list
+ * order with the first interceptor outermost.
+ */
+public interface MovieCallInterceptor {
+
+    default <T> Mono<T> interceptMono(MovieOperation operation, Mono<T> call) {
+        return call;
+    }
+
+    default <T> Flux<T> interceptFlux(MovieOperation operation, Flux<T> call) {
+        return call;
+    }
+
+    /**
+     * Whether this interceptor retries failed calls of {@code operation} itself; callers that would retry them as
+     * well leave it to the interceptor, so attempts do not multiply.
+     */
+    default boolean retries(MovieOperation operation) {
+        return false;
+    }
+}
@@ -0,0 +1,29 @@
+package com.learnwiremock.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * How failed calls are reported. Error responses with an {@code expectedStatuses} status, by default only the 404
+ * for a missing movie, are ordinary outcomes: they are logged at debug and, with {@code stacklessExpectedErrors},
+ * thrown without capturing a stack trace. Every other failure is logged at error, but at most once per operation per
+ * {@code errorLogInterval}; {@link Duration#ZERO} logs every one.
+ */
+@Value
+@Builder
+public class MovieErrorSettings {
+    @Builder.Default
+    Set<Integer> expectedStatuses = Collections.singleton(404);
+    @Builder.Default
+    boolean stacklessExpectedErrors = true;
+    @Builder.Default
+    Duration errorLogInterval = Duration.ofSeconds(1);
+
+    public static MovieErrorSettings defaults() {
+        return MovieErrorSettings.builder().build();
+    }
+}
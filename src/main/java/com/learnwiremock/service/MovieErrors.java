@@ -0,0 +1,106 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.exception.MovieErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Maps failed calls to {@link MovieErrorResponse}s and logs them as configured by {@link MovieErrorSettings}. The
+ * rate limit is kept per {@link MovieOperation}: the first error of an interval is logged along with the number
+ * suppressed since the previous one, the rest only bump that count.
+ */
+@Slf4j
+final class MovieErrors {
+    private final MovieErrorSettings settings;
+    private final long logIntervalNanos;
+    private final AtomicLongArray nextLogAt;
+    private final AtomicIntegerArray suppressed;
+
+    MovieErrors(MovieErrorSettings settings) {
+        this.settings = settings;
+        this.logIntervalNanos = settings.getErrorLogInterval().toNanos();
+        int operations = MovieOperation.values().length;
+        long now = System.nanoTime();
+        this.nextLogAt = new AtomicLongArray(operations);
+        for (int index = 0; index < operations; index++) {
+            nextLogAt.set(index, now);
+        }
+        this.suppressed = new AtomicIntegerArray(operations);
+    }
+
+    /**
+     * The error for a non-2xx response; the body is kept as bytes and only decoded if it is logged or asked for.
+     */
+    MovieErrorResponse errorResponse(MovieOperation operation, int statusCode, byte[] body) {
+        boolean expected = settings.getExpectedStatuses().contains(statusCode);
+        HttpStatus status = HttpStatus.resolve(statusCode);
+        MovieErrorResponse error = new MovieErrorResponse(statusCode, status != null ? status.getReasonPhrase() : "",
+                body, expected && settings.isStacklessExpectedErrors());
+        if (expected) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error response in {}. Status Code: {}; Message: {}",
+                        operation.operationName(), statusCode, error.getResponseBodyAsString());
+            }
+        } else {
+            int suppressedSinceLogged = tryLog(operation);
+            if (suppressedSinceLogged >= 0) {
+                log.error("Error response in {}. Status Code: {}; Message: {}{}", operation.operationName(), statusCode,
+                        error.getResponseBodyAsString(), suppressedNote(suppressedSinceLogged));
+            }
+        }
+        return error;
+    }
+
+    /**
+     * Maps any other failure of {@code operation}; errors that are already {@link MovieErrorResponse}s, and
+     * {@link Error}s, are returned as they are.
+     */
+    Throwable failure(MovieOperation operation, Throwable e) {
+        if (e instanceof MovieErrorResponse || !(e instanceof Exception)) {
+            return e;
+        }
+        return failure(operation, (Exception) e);
+    }
+
+    MovieErrorResponse failure(MovieOperation operation, Exception e) {
+        if (e instanceof MovieErrorResponse) {
+            return (MovieErrorResponse) e;
+        }
+        if (e instanceof WebClientResponseException) {
+            WebClientResponseException responseException = (WebClientResponseException) e;
+            return errorResponse(operation, responseException.getRawStatusCode(), responseException.getResponseBodyAsByteArray());
+        }
+        int suppressedSinceLogged = tryLog(operation);
+        if (suppressedSinceLogged >= 0) {
+            log.error("Exception in {}{}", operation.operationName(), suppressedNote(suppressedSinceLogged), e);
+        }
+        return new MovieErrorResponse(e);
+    }
+
+    /**
+     * Returns the number of errors suppressed since the last one logged for {@code operation}, or -1 if this one is
+     * to be suppressed as well. Without an interval nothing is suppressed, not even errors racing on the same
+     * operation, which would otherwise lose the compare-and-set to each other.
+     */
+    private int tryLog(MovieOperation operation) {
+        if (logIntervalNanos == 0) {
+            return 0;
+        }
+        int index = operation.ordinal();
+        long now = System.nanoTime();
+        long logAt = nextLogAt.get(index);
+        if (now - logAt < 0 || !nextLogAt.compareAndSet(index, logAt, now + logIntervalNanos)) {
+            suppressed.incrementAndGet(index);
+            return -1;
+        }
+        return suppressed.getAndSet(index, 0);
+    }
+
+    private static String suppressedNote(int suppressedSinceLogged) {
+        return suppressedSinceLogged == 0 ? "" : " (" + suppressedSinceLogged + " more since the last one logged)";
+    }
+}
@@ -0,0 +1,36 @@
+package com.learnwiremock.service;
+
+/**
+ * The calls {@link ReactiveMoviesRestClient} makes against the movie service, as seen by
+ * {@link MovieCallInterceptor}s and {@link MoviesClientMetrics}.
+ */
+public enum MovieOperation {
+    RETRIEVE_ALL_MOVIES("retrieveAllMovies", true),
+    RETRIEVE_MOVIE_BY_ID("retrieveMovieById", true),
+    RETRIEVE_MOVIES_BY_NAME("retrieveMoviesByName", true),
+    RETRIEVE_MOVIES_BY_YEAR("retrieveMoviesByYear", true),
+    ADD_MOVIE("addMovie", false),
+    EDIT_MOVIE("editMovie", true),
+    DELETE_MOVIE("deleteMovie", true),
+    DELETE_MOVIE_BY_NAME("deleteMovieByName", true);
+
+    private final String operationName;
+    private final boolean idempotent;
+
+    MovieOperation(String operationName, boolean idempotent) {
+        this.operationName = operationName;
+        this.idempotent = idempotent;
+    }
+
+    public String operationName() {
+        return operationName;
+    }
+
+    /**
+     * Whether repeating the call has the same effect on the movie service as making it once, so that it is safe to
+     * retry after a failure where the request may already have been processed.
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+}
@@ -0,0 +1,25 @@
+package com.learnwiremock.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Tuning knobs for {@link ReplicatedMoviesRestClient}. A zero {@code refreshInterval} disables periodic refreshes;
+ * a {@code snapshotPath} enables warm starts from the last catalog written there.
+ */
+@Value
+@Builder
+public class MovieReplicaSettings {
+    @Builder.Default
+    Duration refreshInterval = Duration.ofMinutes(5);
+    @Builder.Default
+    boolean refreshOnMutation = true;
+    Path snapshotPath;
+
+    public static MovieReplicaSettings defaults() {
+        return MovieReplicaSettings.builder().build();
+    }
+}
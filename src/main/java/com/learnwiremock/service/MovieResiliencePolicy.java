@@ -0,0 +1,43 @@
+package com.learnwiremock.service;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Tuning knobs for {@link ResilienceMovieCallInterceptor}. Deadlines apply to each attempt; for streamed list
+ * operations they bound the time until the first movie arrives, after which the connector's read timeout applies.
+ */
+@Value
+@Builder
+public class MovieResiliencePolicy {
+    @Builder.Default
+    Duration defaultTimeout = Duration.ofSeconds(5);
+    @Singular
+    Map<MovieOperation, Duration> operationTimeouts;
+    @Builder.Default
+    int maxRetries = 2;
+    @Builder.Default
+    Duration firstBackoff = Duration.ofMillis(100);
+    @Builder.Default
+    int circuitBreakerWindow = 20;
+    @Builder.Default
+    double circuitBreakerFailureRate = 0.5;
+    @Builder.Default
+    Duration circuitBreakerOpenDuration = Duration.ofSeconds(30);
+    @Builder.Default
+    int circuitBreakerHalfOpenCalls = 3;
+    @Builder.Default
+    int maxConcurrentCalls = 100;
+
+    public static MovieResiliencePolicy defaults() {
+        return MovieResiliencePolicy.builder().build();
+    }
+
+    public Duration timeout(MovieOperation operation) {
+        return operationTimeouts.getOrDefault(operation, defaultTimeout);
+    }
+}
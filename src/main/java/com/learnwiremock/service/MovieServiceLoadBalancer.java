@@ -0,0 +1,229 @@
+package com.learnwiremock.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads exchanges across replicas of the movie service, so services can call them directly instead of through a
+ * proxy. The {@code WebClient} is built with {@link #primaryBaseUrl()} and every request against it is sent to a
+ * replica picked by the power of two choices: of two random available replicas, the one with the lower product of
+ * calls in flight and average latency. Replicas are ejected and re-admitted passively, as described in
+ * {@link LoadBalancingSettings}; if every replica is ejected, all of them are used.
+ * <p>
+ * As an exchange filter it sees every attempt, so a retry by {@link ResilienceMovieCallInterceptor} picks a replica
+ * again and usually fails over. An exchange cancelled because the attempt's deadline in that interceptor passed
+ * counts as a failure, so a replica that hangs is ejected even when the connector's read timeout is longer than the
+ * deadline. Any other cancellation, such as a hedge that lost to a faster replica or a caller that gave up, says
+ * nothing about the replica and is not recorded. Register it after any filter that should apply once per call.
+ */
+@Slf4j
+public final class MovieServiceLoadBalancer implements ExchangeFilterFunction {
+    private final LoadBalancingSettings settings;
+    private final Endpoint[] endpoints;
+    private final int maxEjected;
+    private final double latencyDecayNanos;
+    private final AtomicInteger ejectedCount = new AtomicInteger();
+
+    public MovieServiceLoadBalancer(List<String> baseUrls, LoadBalancingSettings settings) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one movie service base URL is required");
+        }
+        this.settings = settings;
+        this.endpoints = baseUrls.stream().map(Endpoint::new).toArray(Endpoint[]::new);
+        this.maxEjected = endpoints.length * settings.getMaxEjectedPercent() / 100;
+        this.latencyDecayNanos = settings.getLatencyDecay().toNanos();
+    }
+
+    /**
+     * The base URL to build the {@code WebClient} with: the first of the replicas.
+     */
+    public String primaryBaseUrl() {
+        return endpoints[0].baseUrl;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String url = request.url().toString();
+        if (endpoints.length == 1 || !isPrimary(url)) {
+            return next.exchange(request);
+        }
+        return Mono.subscriberContext().flatMap(context -> {
+            Endpoint endpoint = choose(System.nanoTime());
+            ClientRequest routed = endpoint == endpoints[0] ? request : ClientRequest.from(request)
+                    .url(URI.create(endpoint.baseUrl + url.substring(primaryBaseUrl().length())))
+                    .build();
+            endpoint.inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            return next.exchange(routed)
+                    .doOnSuccess(response -> {
+                        if (response != null) {
+                            onOutcome(endpoint, response.rawStatusCode() < 500, start);
+                        }
+                    })
+                    .doOnError(e -> onOutcome(endpoint, false, start))
+                    .doOnCancel(() -> {
+                        if (AttemptDeadline.hasExpired(context)) {
+                            onOutcome(endpoint, false, start);
+                        }
+                    })
+                    .doFinally(signal -> endpoint.inFlight.decrementAndGet());
+        });
+    }
+
+    boolean isEjected(String baseUrl) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.baseUrl.equals(stripTrailingSlash(baseUrl))) {
+                return endpoint.ejected;
+            }
+        }
+        throw new IllegalArgumentException("Unknown movie service replica " + baseUrl);
+    }
+
+    private boolean isPrimary(String url) {
+        String primary = primaryBaseUrl();
+        if (!url.startsWith(primary)) {
+            return false;
+        }
+        if (url.length() == primary.length()) {
+            return true;
+        }
+        char next = url.charAt(primary.length());
+        return next == '/' || next == '?';
+    }
+
+    private Endpoint choose(long now) {
+        Endpoint[] available = new Endpoint[endpoints.length];
+        int count = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isAvailable(now)) {
+                available[count++] = endpoint;
+            }
+        }
+        if (count == 0) {
+            available = endpoints;
+            count = endpoints.length;
+        }
+        if (count == 1) {
+            return available[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(count);
+        int second = random.nextInt(count - 1);
+        if (second >= first) {
+            second++;
+        }
+        return available[first].cost(now) <= available[second].cost(now) ? available[first] : available[second];
+    }
+
+    private void onOutcome(Endpoint endpoint, boolean succeeded, long startNanos) {
+        long now = System.nanoTime();
+        if (succeeded) {
+            endpoint.succeeded(now - startNanos, now);
+        } else if (endpoint.failed(now)) {
+            eject(endpoint, now);
+        }
+    }
+
+    private void eject(Endpoint endpoint, long now) {
+        int current;
+        do {
+            current = ejectedCount.get();
+            if (current >= maxEjected) {
+                return;
+            }
+        } while (!ejectedCount.compareAndSet(current, current + 1));
+        long ejectionNanos;
+        synchronized (endpoint) {
+            if (endpoint.ejected) {
+                ejectedCount.decrementAndGet();
+                return;
+            }
+            ejectionNanos = Math.min(settings.getMaxEjectionDuration().toNanos(),
+                    settings.getEjectionDuration().toNanos() << Math.min(endpoint.ejections, 30));
+            endpoint.ejections++;
+            endpoint.ejectedUntilNanos = now + ejectionNanos;
+            endpoint.ejected = true;
+        }
+        log.warn("Ejecting movie service replica {} for {} ms after {} consecutive failures", endpoint.baseUrl,
+                TimeUnit.NANOSECONDS.toMillis(ejectionNanos), settings.getConsecutiveFailuresToEject());
+    }
+
+    private static String stripTrailingSlash(String baseUrl) {
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * A replica's calls in flight, average latency and ejection state. The average jumps to any slower sample or the
+     * failure penalty, and otherwise moves towards new samples in proportion to the time since the previous one. A
+     * re-admitted replica is on probation: a single failure ejects it again.
+     */
+    private final class Endpoint {
+        private final String baseUrl;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean ejected;
+        private long ejectedUntilNanos;
+        private int ejections;
+        private int consecutiveFailures;
+        private double averageLatencyNanos;
+        private long lastSampleNanos;
+        private boolean sampled;
+
+        private Endpoint(String baseUrl) {
+            this.baseUrl = stripTrailingSlash(baseUrl);
+        }
+
+        private boolean isAvailable(long now) {
+            if (!ejected) {
+                return true;
+            }
+            synchronized (this) {
+                if (!ejected || now - ejectedUntilNanos < 0) {
+                    return !ejected;
+                }
+                ejected = false;
+                consecutiveFailures = settings.getConsecutiveFailuresToEject() - 1;
+            }
+            ejectedCount.decrementAndGet();
+            log.info("Re-admitting movie service replica {}", baseUrl);
+            return true;
+        }
+
+        private synchronized double cost(long now) {
+            double decayedLatency = averageLatencyNanos * Math.exp(-(now - lastSampleNanos) / latencyDecayNanos);
+            return (inFlight.get() + 1) * (decayedLatency + 1);
+        }
+
+        private synchronized void succeeded(long latencyNanos, long now) {
+            consecutiveFailures = 0;
+            ejections = 0;
+            if (!sampled || latencyNanos > averageLatencyNanos) {
+                averageLatencyNanos = latencyNanos;
+                sampled = true;
+            } else {
+                double weight = Math.exp(-(now - lastSampleNanos) / latencyDecayNanos);
+                averageLatencyNanos = averageLatencyNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastSampleNanos = now;
+        }
+
+        /**
+         * Returns whether the replica should be ejected.
+         */
+        private synchronized boolean failed(long now) {
+            averageLatencyNanos = Math.max(averageLatencyNanos, settings.getFailurePenalty().toNanos());
+            lastSampleNanos = now;
+            sampled = true;
+            return ++consecutiveFailures >= settings.getConsecutiveFailuresToEject() && !ejected;
+        }
+    }
+}
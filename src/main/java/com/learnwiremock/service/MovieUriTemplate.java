@@ -0,0 +1,115 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.constants.MoviesAppConstants;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link MoviesAppConstants} endpoint with one variable, compiled once into the literal text around it. Expanding
+ * it is a concatenation plus percent-encoding of the value, instead of parsing the template with a
+ * {@code UriComponentsBuilder} on every call. The result is an encoded path and query, e.g.
+ * {@code /movieservice/v1/movieName?movie_name=The%20Best%20Exotic%20Marigold%20Hotel}.
+ * <p>
+ * Values are encoded as UTF-8 with everything but the RFC 3986 unreserved characters escaped, which is valid in both
+ * a path segment and a query value. Instances are immutable and thread-safe.
+ */
+public final class MovieUriTemplate {
+    public static final MovieUriTemplate MOVIE_BY_ID = path(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1);
+    public static final MovieUriTemplate MOVIES_BY_NAME = query(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1, "movie_name");
+    public static final MovieUriTemplate MOVIES_BY_YEAR = query(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1, "year");
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final String prefix;
+    private final String suffix;
+    private final String withoutValue;
+
+    private MovieUriTemplate(String prefix, String suffix, String withoutValue) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.withoutValue = withoutValue;
+    }
+
+    /**
+     * Compiles a path template with a single {@code {variable}}, such as {@code /movieservice/v1/movie/{id}}.
+     */
+    public static MovieUriTemplate path(String template) {
+        int start = template.indexOf('{');
+        int end = template.indexOf('}', start);
+        if (start < 0 || end < 0 || template.indexOf('{', end) >= 0) {
+            throw new IllegalArgumentException("Expected exactly one {variable} in " + template);
+        }
+        return new MovieUriTemplate(template.substring(0, start), template.substring(end + 1), null);
+    }
+
+    /**
+     * Compiles {@code path} with a single query parameter {@code name}. A null value expands to the parameter
+     * without {@code =}, like {@code UriComponentsBuilder.queryParam} does.
+     */
+    public static MovieUriTemplate query(String path, String name) {
+        String withoutValue = path + '?' + encode(name);
+        return new MovieUriTemplate(withoutValue + '=', "", withoutValue);
+    }
+
+    public String expand(Object value) {
+        if (value == null) {
+            if (withoutValue == null) {
+                throw new IllegalArgumentException("No value for " + prefix + "{}" + suffix);
+            }
+            return withoutValue;
+        }
+        String text = value.toString();
+        int unreserved = unreservedPrefixLength(text);
+        StringBuilder uri = new StringBuilder(prefix.length() + text.length() + suffix.length()
+                + (unreserved == text.length() ? 0 : 16)).append(prefix);
+        appendEncoded(uri, text, unreserved);
+        return uri.append(suffix).toString();
+    }
+
+    /**
+     * Percent-encodes {@code value} for a path segment or query value.
+     */
+    public static String encode(String value) {
+        int unreserved = unreservedPrefixLength(value);
+        if (unreserved == value.length()) {
+            return value;
+        }
+        StringBuilder encoded = new StringBuilder(value.length() + 16);
+        appendEncoded(encoded, value, unreserved);
+        return encoded.toString();
+    }
+
+    @Override
+    public String toString() {
+        return prefix + "{}" + suffix;
+    }
+
+    private static void appendEncoded(StringBuilder uri, String value, int unreserved) {
+        uri.append(value, 0, unreserved);
+        if (unreserved == value.length()) {
+            return;
+        }
+        byte[] bytes = value.substring(unreserved).getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            int octet = b & 0xFF;
+            if (isUnreserved(octet)) {
+                uri.append((char) octet);
+            } else {
+                uri.append('%').append(HEX_DIGITS[octet >> 4]).append(HEX_DIGITS[octet & 0xF]);
+            }
+        }
+    }
+
+    private static int unreservedPrefixLength(String value) {
+        int index = 0;
+        while (index < value.length() && isUnreserved(value.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isUnreserved(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+}
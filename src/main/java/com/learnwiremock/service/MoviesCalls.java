@@ -0,0 +1,48 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.catalog.MovieCatalog;
+import com.learnwiremock.dto.BulkMutationSummary;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.dto.MovieMutation;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The blocking operations behind {@link MoviesRestClient}, implemented either on top of
+ * {@link ReactiveMoviesRestClient} or directly on a {@link com.learnwiremock.transport.MoviesTransport}.
+ */
+interface MoviesCalls {
+
+    List<Movie> retrieveAllMovies();
+
+    Stream<Movie> streamAllMovies();
+
+    MovieCatalog retrieveMovieCatalog();
+
+    Movie retrieveMovieById(Integer movieId);
+
+    Optional<Movie> findMovieById(Integer movieId);
+
+    List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency);
+
+    List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency, Duration timeout);
+
+    List<Movie> retrieveMoviesByName(String movieName);
+
+    List<Movie> retrieveMoviesByYear(Integer year);
+
+    Movie addMovie(Movie newMovie);
+
+    Movie editMovie(Integer movieId, Movie editMovie);
+
+    String deleteMovie(Integer movieId);
+
+    String deleteMovieByName(String movieName);
+
+    BulkMutationSummary applyMutations(Stream<MovieMutation> mutations, BulkMutationSettings settings);
+}
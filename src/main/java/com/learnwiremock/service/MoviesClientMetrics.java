@@ -0,0 +1,43 @@
+package com.learnwiremock.service;
+
+/**
+ * Receives call outcomes and latencies from {@link MetricsMovieCallInterceptor}, connection-pool acquire times
+ * from clients built by {@link MoviesWebClientFactory}, and load shedding and hedging activity from
+ * {@link AdaptiveConcurrencyMovieCallInterceptor} and {@link HedgingMovieCallInterceptor}. Implementations are
+ * called on Netty event loop threads and must not block.
+ */
+public interface MoviesClientMetrics {
+
+    MoviesClientMetrics NOOP = new MoviesClientMetrics() {
+    };
+
+    default void recordSuccess(MovieOperation operation, long durationNanos) {
+    }
+
+    /**
+     * @param statusCode the HTTP status the movie service answered with, or 0 if no response was received
+     */
+    default void recordFailure(MovieOperation operation, int statusCode, long durationNanos) {
+    }
+
+    default void recordConnectionAcquire(long durationNanos) {
+    }
+
+    /**
+     * The concurrency limit of an {@link AdaptiveConcurrencyMovieCallInterceptor}, reported whenever it changes.
+     */
+    default void recordConcurrencyLimit(int limit) {
+    }
+
+    /**
+     * A call an {@link AdaptiveConcurrencyMovieCallInterceptor} rejected without contacting the movie service.
+     */
+    default void recordShed(MovieOperation operation) {
+    }
+
+    /**
+     * A second request a {@link HedgingMovieCallInterceptor} sent for a slow call.
+     */
+    default void recordHedge(MovieOperation operation) {
+    }
+}
@@ -1,170 +1,190 @@
 package com.learnwiremock.service;
 
-import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.catalog.MovieCatalog;
+import com.learnwiremock.dto.BulkMutationSummary;
 import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.dto.MovieMutation;
 import com.learnwiremock.exception.MovieErrorResponse;
-import lombok.extern.slf4j.Slf4j;
+import com.learnwiremock.transport.MoviesTransport;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-
-@Slf4j
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Blocking client for the movie service. By default each call runs on {@link ReactiveMoviesRestClient} and waits
+ * for its result; built on a {@link MoviesTransport}, each call instead performs its exchange on the calling thread,
+ * which suits thread-per-request services running on virtual threads.
+ */
 public class MoviesRestClient {
-    private WebClient webClient;
+    private static final int DEFAULT_BATCH_CONCURRENCY = 16;
+
+    private final MoviesCalls calls;
 
     public MoviesRestClient(WebClient webClient) {
-        this.webClient = webClient;
+        this(new ReactiveMoviesRestClient(webClient));
+    }
+
+    /**
+     * Guards every call with the timeouts, retries, circuit breaker and bulkhead of {@code resiliencePolicy}, so a
+     * degraded movie service cannot block callers indefinitely.
+     */
+    public MoviesRestClient(WebClient webClient, MovieResiliencePolicy resiliencePolicy) {
+        this(new ReactiveMoviesRestClient(webClient, true,
+                Collections.singletonList(new ResilienceMovieCallInterceptor(resiliencePolicy))));
+    }
+
+    public MoviesRestClient(ReactiveMoviesRestClient reactiveMoviesRestClient) {
+        this(new ReactiveMoviesCalls(reactiveMoviesRestClient));
+    }
+
+    /**
+     * Runs every call on the calling thread through {@code transport}; batch lookups and bulk mutations fan out on a
+     * bounded pool of daemon threads shared by all transport-based clients.
+     * <p>
+     * Unlike a client on a WebClient, it calls a single base URL, lookups are not coalesced, and catalog requests are
+     * not conditional. With no {@link MovieCallInterceptor}s there are no metrics, timeouts, retries, circuit breaker,
+     * adaptive concurrency limit or hedging, and the transport's own timeouts are the only bound on a call.
+     */
+    public MoviesRestClient(MoviesTransport transport) {
+        this(transport, Collections.emptyList());
+    }
+
+    /**
+     * Passes every exchange through {@code interceptors}, as {@link ReactiveMoviesRestClient} does; each attempt then
+     * runs on a thread of its own while the caller waits for the intercepted result.
+     */
+    public MoviesRestClient(MoviesTransport transport, List<MovieCallInterceptor> interceptors) {
+        this(new TransportMoviesCalls(transport, interceptors, MovieErrorSettings.defaults()));
+    }
+
+    /**
+     * Like {@link #MoviesRestClient(MoviesTransport)}, with batch lookups and bulk mutations fanned out as one task
+     * per request on a fresh executor from {@code fanOutExecutors}, shut down when the call completes; e.g.
+     * {@code Executors::newVirtualThreadPerTaskExecutor} on JDK 21.
+     */
+    public MoviesRestClient(MoviesTransport transport, Supplier<ExecutorService> fanOutExecutors) {
+        this(transport, fanOutExecutors, MovieErrorSettings.defaults());
     }
 
+    public MoviesRestClient(MoviesTransport transport, Supplier<ExecutorService> fanOutExecutors,
+                            MovieErrorSettings errorSettings) {
+        this(transport, fanOutExecutors, Collections.emptyList(), errorSettings);
+    }
+
+    /**
+     * Like {@link #MoviesRestClient(MoviesTransport, List)}, with intercepted attempts also run on executors from
+     * {@code fanOutExecutors}.
+     */
+    public MoviesRestClient(MoviesTransport transport, Supplier<ExecutorService> fanOutExecutors,
+                            List<MovieCallInterceptor> interceptors, MovieErrorSettings errorSettings) {
+        this(new TransportMoviesCalls(transport, fanOutExecutors, interceptors, errorSettings));
+    }
+
+    private MoviesRestClient(MoviesCalls calls) {
+        this.calls = calls;
+    }
+
+    /**
+     * Downloads and decodes the whole catalog on every call: the request is never conditional and nothing is kept
+     * for revalidation. Callers polling the catalog should use {@link #retrieveMovieCatalog()}, which on a WebClient
+     * revalidates the catalog it retained with a conditional request, or {@link #streamAllMovies()} to avoid holding
+     * every movie at once.
+     */
     public List<Movie> retrieveAllMovies(){
+        return calls.retrieveAllMovies();
+    }
 
-        return webClient.get().uri(MoviesAppConstants.GET_ALL_MOVIES_V1)
-                .retrieve()
-                .bodyToFlux(Movie.class)
-                .collectList()
-                .block();
+    /**
+     * Streams the catalog as the response is decoded, holding only a small prefetch of movies ahead of the caller,
+     * so memory stays bounded for any catalog size; nothing is retained for revalidation, unlike
+     * {@link #retrieveMovieCatalog()}. The stream must be closed (e.g. try-with-resources) to cancel the exchange if
+     * it is not fully consumed.
+     */
+    public Stream<Movie> streamAllMovies() {
+        return calls.streamAllMovies();
     }
 
-    public Movie retrieveMovieById(Integer movieId){
-        try {
-            return webClient.get().uri(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1, movieId)
-                .retrieve()
-                .bodyToMono(Movie.class)
-                .block();
-        } catch (WebClientResponseException e) {
-            log.error("WebClientResponseException in retrieveMovieById. Status Code: {}; Message: {}", e.getRawStatusCode(), e.getResponseBodyAsString());
-            throw new MovieErrorResponse(e.getStatusText(), e);
-        } catch (Exception e) {
-            log.error("Exception in retrieveMovieById: {}", e);
-            throw new MovieErrorResponse(e);
+    /**
+     * Hands each movie to {@code movieConsumer} on the calling thread as soon as it has been decoded.
+     */
+    public void retrieveAllMovies(Consumer<Movie> movieConsumer) {
+        try (Stream<Movie> movies = streamAllMovies()) {
+            movies.forEach(movieConsumer);
         }
     }
 
-    public List<Movie> retrieveMoviesByName(String movieName) {
+    public MovieCatalog retrieveMovieCatalog() {
+        return calls.retrieveMovieCatalog();
+    }
 
-        String retrieveMoviesByNameUri = UriComponentsBuilder.fromUriString(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1)
-                .queryParam("movie_name", movieName)
-                .buildAndExpand()
-                .toUriString();
-
-        try {
-            return webClient.get().uri(retrieveMoviesByNameUri)
-                    .retrieve()
-                    .bodyToFlux(Movie.class)
-                    .collectList()
-                    .block();
-        } catch (WebClientResponseException e) {
-            log.error("WebClientResponseException in retrieveMoviesByName. " +
-                            "Status Code: {}; Message: {}",
-                    e.getRawStatusCode(), e.getResponseBodyAsString());
-            throw new MovieErrorResponse(e.getStatusText(), e);
-        } catch (Exception e) {
-            log.error("Exception in retrieveMoviesByName: {}", e);
-            throw new MovieErrorResponse(e);
-        }
+    public Movie retrieveMovieById(Integer movieId){
+        return calls.retrieveMovieById(movieId);
+    }
+
+    /**
+     * Like {@link #retrieveMovieById}, but empty instead of failing with a {@link MovieErrorResponse} if the movie
+     * service has no movie with the id.
+     */
+    public Optional<Movie> findMovieById(Integer movieId) {
+        return calls.findMovieById(movieId);
+    }
+
+    public List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds) {
+        return retrieveMoviesByIds(movieIds, DEFAULT_BATCH_CONCURRENCY);
+    }
+
+    public List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency) {
+        return calls.retrieveMoviesByIds(movieIds, maxConcurrency);
+    }
+
+    /**
+     * Returns whatever has completed after {@code timeout}; ids still outstanding are reported as timed out.
+     */
+    public List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency, Duration timeout) {
+        return calls.retrieveMoviesByIds(movieIds, maxConcurrency, timeout);
+    }
+
+    public List<Movie> retrieveMoviesByName(String movieName) {
+        return calls.retrieveMoviesByName(movieName);
     }
 
     public List<Movie> retrieveMoviesByYear(Integer year) {
-        String retrieveMoviesByYearUri = UriComponentsBuilder.fromUriString(
-                        MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1)
-                .queryParam("year", year)
-                .buildAndExpand()
-                .toUriString();
-
-        try {
-            return webClient.get().uri(retrieveMoviesByYearUri)
-                    .retrieve()
-                    .bodyToFlux(Movie.class)
-                    .collectList()
-                    .block();
-        } catch (WebClientResponseException e) {
-           log.error("WebClientResponseException in retrieveMoviesByYear. " +
-                           "Status Code: {}; Message: {}",
-                   e.getRawStatusCode(), e.getResponseBodyAsString());
-           throw new MovieErrorResponse(e.getStatusText(), e);
-         } catch (Exception e) {
-           log.error("Exception in retrieveMoviesByYear: {}", e);
-           throw new MovieErrorResponse(e);
-           }
+        return calls.retrieveMoviesByYear(year);
     }
 
     public Movie addMovie(Movie newMovie) {
-        try {
-            return webClient.post().uri(MoviesAppConstants.ADD_MOVIE_V1)
-                    .syncBody(newMovie)
-                    .retrieve()
-                    .bodyToMono(Movie.class)
-                    .block();
-        } catch(WebClientResponseException e) {
-            log.error("WebClientResponseException in addMovie. " +
-                            "Status Code: {}; Message: {}",
-                    e.getRawStatusCode(), e.getResponseBodyAsString());
-            throw new MovieErrorResponse(e.getStatusText(), e);
-        } catch (Exception e) {
-            log.error("Exception in addMovie: {}", e);
-            throw new MovieErrorResponse(e);
-        }
+        return calls.addMovie(newMovie);
     }
 
     public Movie editMovie(Integer movieId, Movie editMovie) {
-        try {
-            return webClient.put().uri(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1, movieId)
-                    .syncBody(editMovie)
-                    .retrieve()
-                    .bodyToMono(Movie.class)
-                    .block();
-        } catch(WebClientResponseException e) {
-            log.error("WebClientResponseException in editMovie. " +
-                            "Status Code: {}; Message: {}",
-                    e.getRawStatusCode(), e.getResponseBodyAsString());
-            throw new MovieErrorResponse(e.getStatusText(), e);
-        } catch (Exception e) {
-            log.error("Exception in editMovie: {}", e);
-            throw new MovieErrorResponse(e);
-        }
+        return calls.editMovie(movieId, editMovie);
     }
 
     public String deleteMovie(Integer movieId) {
-        try {
-            return webClient.delete().uri(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1, movieId)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-        } catch(WebClientResponseException e) {
-            log.error("WebClientResponseException in deleteMovie. " +
-                            "Status Code: {}; Message: {}",
-                    e.getRawStatusCode(), e.getResponseBodyAsString());
-            throw new MovieErrorResponse(e.getStatusText(), e);
-        } catch (Exception e) {
-            log.error("Exception in deleteMovie: {}", e);
-            throw new MovieErrorResponse(e);
-        }
+        return calls.deleteMovie(movieId);
     }
 
-    public String deleteMovieByName(String movieName) {
-        String deleteMovieByNameUri = UriComponentsBuilder.fromUriString(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1)
-                .queryParam("movie_name", movieName)
-                .buildAndExpand()
-                .toUriString();
-
-        try {
-            webClient.delete().uri(deleteMovieByNameUri)
-                    .retrieve()
-                    .bodyToMono(Void.class)
-                    .block();
-        } catch(WebClientResponseException e) {
-            log.error("WebClientResponseException in deleteMovie. " +
-                            "Status Code: {}; Message: {}",
-                    e.getRawStatusCode(), e.getResponseBodyAsString());
-            throw new MovieErrorResponse(e.getStatusText(), e);
-        } catch (Exception e) {
-            log.error("Exception in deleteMovie: {}", e);
-            throw new MovieErrorResponse(e);
-        }
+    public BulkMutationSummary applyMutations(Stream<MovieMutation> mutations) {
+        return applyMutations(mutations, BulkMutationSettings.defaults());
+    }
 
-        return "Movie deleted successfully";
+    /**
+     * Pipelines the mutations with a bounded in-flight window; see {@link ReactiveMoviesRestClient#applyMutations}.
+     */
+    public BulkMutationSummary applyMutations(Stream<MovieMutation> mutations, BulkMutationSettings settings) {
+        return calls.applyMutations(mutations, settings);
     }
-}
 
+    public String deleteMovieByName(String movieName) {
+        return calls.deleteMovieByName(movieName);
+    }
+}
@@ -0,0 +1,245 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.codec.MovieCodecs;
+import com.learnwiremock.exception.MovieServiceBulkheadFullException;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.channel.BootstrapHandlers;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds movie service clients on a tuned reactor-netty {@link HttpClient} so services do not have to assemble
+ * {@link ConnectionProvider}s and channel options by hand. Bodies are encoded and decoded with {@link MovieCodecs}.
+ */
+public final class MoviesWebClientFactory {
+
+    private static final String ACQUIRE_STARTED_AT = MoviesWebClientFactory.class.getName() + ".acquireStartedAt";
+    private static final ConcurrentMap<List<Object>, ConnectionProvider> CONNECTION_PROVIDERS = new ConcurrentHashMap<>();
+
+    private MoviesWebClientFactory() {
+    }
+
+    public static MoviesRestClient moviesRestClient(String baseUrl) {
+        return new MoviesRestClient(reactiveMoviesRestClient(baseUrl, MoviesWebClientSettings.defaults()));
+    }
+
+    public static MoviesRestClient moviesRestClient(String baseUrl, MoviesWebClientSettings settings) {
+        return new MoviesRestClient(reactiveMoviesRestClient(baseUrl, settings));
+    }
+
+    public static MoviesRestClient moviesRestClient(String baseUrl, MoviesWebClientSettings settings,
+                                                    MoviesClientMetrics metrics) {
+        return new MoviesRestClient(reactiveMoviesRestClient(baseUrl, settings, metrics));
+    }
+
+    public static ReactiveMoviesRestClient reactiveMoviesRestClient(String baseUrl, MoviesWebClientSettings settings) {
+        return new ReactiveMoviesRestClient(webClient(baseUrl, settings));
+    }
+
+    /**
+     * Records every call and every connection-pool acquire in {@code metrics}.
+     */
+    public static ReactiveMoviesRestClient reactiveMoviesRestClient(String baseUrl, MoviesWebClientSettings settings,
+                                                                    MoviesClientMetrics metrics) {
+        return new ReactiveMoviesRestClient(webClientBuilder(baseUrl, settings, metrics).build(), true,
+                Collections.singletonList(new MetricsMovieCallInterceptor(metrics)));
+    }
+
+    /**
+     * A client for the movie service replicas at {@code baseUrls}, which calls them directly and balances its calls
+     * across them with a {@link MovieServiceLoadBalancer}.
+     */
+    public static MoviesRestClient moviesRestClient(List<String> baseUrls, MoviesWebClientSettings settings,
+                                                    LoadBalancingSettings loadBalancing) {
+        return new MoviesRestClient(reactiveMoviesRestClient(baseUrls, settings, loadBalancing));
+    }
+
+    public static ReactiveMoviesRestClient reactiveMoviesRestClient(List<String> baseUrls, MoviesWebClientSettings settings,
+                                                                    LoadBalancingSettings loadBalancing) {
+        return new ReactiveMoviesRestClient(
+                webClientBuilder(baseUrls, settings, MoviesClientMetrics.NOOP, loadBalancing).build());
+    }
+
+    public static WebClient webClient(String baseUrl, MoviesWebClientSettings settings) {
+        return webClientBuilder(baseUrl, settings).build();
+    }
+
+    public static WebClient.Builder webClientBuilder(String baseUrl, MoviesWebClientSettings settings) {
+        return webClientBuilder(baseUrl, settings, MoviesClientMetrics.NOOP);
+    }
+
+    /**
+     * Connection-pool acquire time is measured from the moment the exchange is subscribed to until reactor-netty
+     * hands it a connection to write the request on, so it includes the time to open a new connection.
+     */
+    public static WebClient.Builder webClientBuilder(String baseUrl, MoviesWebClientSettings settings,
+                                                     MoviesClientMetrics metrics) {
+        return webClientBuilder(baseUrl, settings, metrics, 1);
+    }
+
+    /**
+     * A builder for the replicas at {@code baseUrls}. reactor-netty keeps a pool per replica, so the pool settings
+     * apply to each of them and the pending-acquire limit is scaled by their number. The load balancer goes after the
+     * factory's own filters, so calls rejected by the pending-acquire limit do not count against a replica.
+     */
+    public static WebClient.Builder webClientBuilder(List<String> baseUrls, MoviesWebClientSettings settings,
+                                                     MoviesClientMetrics metrics, LoadBalancingSettings loadBalancing) {
+        MovieServiceLoadBalancer loadBalancer = new MovieServiceLoadBalancer(baseUrls, loadBalancing);
+        return webClientBuilder(loadBalancer.primaryBaseUrl(), settings, metrics, baseUrls.size())
+                .filter(loadBalancer);
+    }
+
+    private static WebClient.Builder webClientBuilder(String baseUrl, MoviesWebClientSettings settings,
+                                                      MoviesClientMetrics metrics, int replicas) {
+        HttpClient httpClient = httpClient(baseUrl, settings);
+        int pendingAcquireLimit = replicas * (settings.getMaxConnections() + settings.getMaxPendingAcquires());
+        WebClient.Builder builder = WebClient.builder()
+                .baseUrl(baseUrl)
+                .exchangeStrategies(MovieCodecs.exchangeStrategies())
+                .filter(new PendingAcquireLimit(pendingAcquireLimit));
+        if (metrics == MoviesClientMetrics.NOOP) {
+            return builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+        }
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient.doOnRequest((request, connection) ->
+                        request.currentContext().<Long>getOrEmpty(ACQUIRE_STARTED_AT)
+                                .ifPresent(startedAt -> metrics.recordConnectionAcquire(System.nanoTime() - startedAt)))))
+                .filter((request, next) -> next.exchange(request)
+                        .subscriberContext(context -> context.put(ACQUIRE_STARTED_AT, System.nanoTime())));
+    }
+
+    /**
+     * reactor-netty 0.8 has no pool idle-time or pending-queue settings, so idle eviction is done with an
+     * {@link IdleStateHandler} installed on every pooled channel and the pending queue is bounded by
+     * {@link PendingAcquireLimit} in front of the connector.
+     * <p>
+     * Clients built with the same pool name, size and acquire timeout share one {@link ConnectionProvider}, so
+     * building clients repeatedly neither leaks pools nor multiplies the connections to the movie service.
+     */
+    public static HttpClient httpClient(String baseUrl, MoviesWebClientSettings settings) {
+        ConnectionProvider connectionProvider = connectionProvider(settings);
+        long maxIdleMillis = settings.getMaxIdleTime().toMillis();
+        long readTimeoutMillis = settings.getReadTimeout().toMillis();
+        long writeTimeoutMillis = settings.getWriteTimeout().toMillis();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(settings.isKeepAlive())
+                .compress(settings.isCompression())
+                .tcpConfiguration(tcpClient -> tcpClient
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(settings.getConnectTimeout().toMillis()))
+                        .option(ChannelOption.TCP_NODELAY, settings.isTcpNoDelay())
+                        .option(ChannelOption.SO_KEEPALIVE, settings.isKeepAlive())
+                        .bootstrap(bootstrap -> BootstrapHandlers.updateConfiguration(bootstrap, "idleEviction",
+                                (connectionObserver, channel) -> channel.pipeline()
+                                        .addFirst("idleEvictionHandler", new IdleConnectionEvictor(maxIdleMillis))))
+                        .doOnConnected(connection -> connection
+                                .addHandlerLast(new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS))
+                                .addHandlerLast(new WriteTimeoutHandler(writeTimeoutMillis, TimeUnit.MILLISECONDS))));
+
+        if (settings.isHttp2()) {
+            httpClient = httpClient.protocol(baseUrl.startsWith("https")
+                    ? HttpProtocol.H2
+                    : HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        return httpClient;
+    }
+
+    static ConnectionProvider connectionProvider(MoviesWebClientSettings settings) {
+        List<Object> poolSettings = Arrays.asList(settings.getPoolName(), settings.getMaxConnections(),
+                settings.getPendingAcquireTimeout());
+        return CONNECTION_PROVIDERS.computeIfAbsent(poolSettings, key -> ConnectionProvider.fixed(settings.getPoolName(),
+                settings.getMaxConnections(), settings.getPendingAcquireTimeout().toMillis()));
+    }
+
+    /**
+     * Closes a channel once it has seen no reads or writes for the configured idle time; the pool's health check
+     * then discards it on the next acquire.
+     */
+    private static final class IdleConnectionEvictor extends IdleStateHandler {
+        private IdleConnectionEvictor(long maxIdleMillis) {
+            super(0, 0, maxIdleMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        protected void channelIdle(ChannelHandlerContext ctx, IdleStateEvent evt) {
+            ctx.close();
+        }
+    }
+
+    /**
+     * Fails fast once more exchanges are in flight than the pool has connections plus allowed pending acquires,
+     * instead of letting the acquire queue grow until every caller times out. The rejection is a
+     * {@link MovieServiceBulkheadFullException}, so like any other client-side rejection it is not retried and is not
+     * held against the movie service by the circuit breaker or the adaptive concurrency limit.
+     */
+    static final class PendingAcquireLimit implements ExchangeFilterFunction {
+        private final int limit;
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        PendingAcquireLimit(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+            return Mono.defer(() -> {
+                if (outstanding.incrementAndGet() > limit) {
+                    outstanding.decrementAndGet();
+                    return Mono.error(new MovieServiceBulkheadFullException(
+                            "Too many pending requests to the movie service (limit " + limit + ")"));
+                }
+                AtomicBoolean released = new AtomicBoolean();
+                Runnable release = () -> {
+                    if (released.compareAndSet(false, true)) {
+                        outstanding.decrementAndGet();
+                    }
+                };
+                return next.exchange(request)
+                        .map(response -> releasingAfterBody(response, release))
+                        .doOnError(e -> release.run())
+                        .doOnCancel(release);
+            });
+        }
+
+        /**
+         * The connection goes back to the pool only once the body has been read, so the slot is held until then
+         * rather than until the headers arrive. A response whose status is not an {@link HttpStatus} cannot be rebuilt,
+         * so it frees its slot right away.
+         */
+        private static ClientResponse releasingAfterBody(ClientResponse response, Runnable release) {
+            if (HttpStatus.resolve(response.rawStatusCode()) == null) {
+                release.run();
+                return response;
+            }
+            return ClientResponse.from(response)
+                    .body(response.bodyToFlux(DataBuffer.class)
+                            .doOnTerminate(release)
+                            .doOnCancel(release))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.learnwiremock.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Transport settings for the {@code WebClient} built by {@link MoviesWebClientFactory}. The defaults favour
+ * throughput: a large shared pool, Nagle disabled, gzip responses and short connect/read deadlines.
+ * <p>
+ * {@code maxIdleTime} should stay above {@code readTimeout} so that only connections parked in the pool are evicted.
+ */
+@Value
+@Builder
+public class MoviesWebClientSettings {
+    @Builder.Default
+    String poolName = "movies";
+    @Builder.Default
+    int maxConnections = 200;
+    @Builder.Default
+    int maxPendingAcquires = 1000;
+    @Builder.Default
+    Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    @Builder.Default
+    Duration maxIdleTime = Duration.ofSeconds(30);
+    @Builder.Default
+    Duration connectTimeout = Duration.ofSeconds(2);
+    @Builder.Default
+    Duration readTimeout = Duration.ofSeconds(5);
+    @Builder.Default
+    Duration writeTimeout = Duration.ofSeconds(5);
+    @Builder.Default
+    boolean tcpNoDelay = true;
+    @Builder.Default
+    boolean keepAlive = true;
+    @Builder.Default
+    boolean compression = true;
+    @Builder.Default
+    boolean http2 = false;
+
+    public static MoviesWebClientSettings defaults() {
+        return MoviesWebClientSettings.builder().build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.catalog.MovieCatalog;
+import com.learnwiremock.dto.BulkMutationSummary;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.dto.MovieMutation;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Runs each call on {@link ReactiveMoviesRestClient} and waits for its result.
+ */
+final class ReactiveMoviesCalls implements MoviesCalls {
+    private static final int STREAM_PREFETCH = 32;
+
+    private final ReactiveMoviesRestClient reactiveMoviesRestClient;
+
+    ReactiveMoviesCalls(ReactiveMoviesRestClient reactiveMoviesRestClient) {
+        this.reactiveMoviesRestClient = reactiveMoviesRestClient;
+    }
+
+    @Override
+    public List<Movie> retrieveAllMovies() {
+        return reactiveMoviesRestClient.retrieveAllMovies()
+                .collectList()
+                .block();
+    }
+
+    @Override
+    public Stream<Movie> streamAllMovies() {
+        return reactiveMoviesRestClient.retrieveAllMovies().toStream(STREAM_PREFETCH);
+    }
+
+    @Override
+    public MovieCatalog retrieveMovieCatalog() {
+        return reactiveMoviesRestClient.retrieveMovieCatalog().block();
+    }
+
+    @Override
+    public Movie retrieveMovieById(Integer movieId) {
+        return reactiveMoviesRestClient.retrieveMovieById(movieId).block();
+    }
+
+    @Override
+    public Optional<Movie> findMovieById(Integer movieId) {
+        return Optional.ofNullable(reactiveMoviesRestClient.findMovieById(movieId).block());
+    }
+
+    @Override
+    public List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency) {
+        return reactiveMoviesRestClient.retrieveMoviesByIds(movieIds, maxConcurrency)
+                .collectList()
+                .block();
+    }
+
+    @Override
+    public List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency, Duration timeout) {
+        return reactiveMoviesRestClient.retrieveMoviesByIds(movieIds, maxConcurrency, timeout).block();
+    }
+
+    @Override
+    public List<Movie> retrieveMoviesByName(String movieName) {
+        return reactiveMoviesRestClient.retrieveMoviesByName(movieName)
+                .collectList()
+                .block();
+    }
+
+    @Override
+    public List<Movie> retrieveMoviesByYear(Integer year) {
+        return reactiveMoviesRestClient.retrieveMoviesByYear(year)
+                .collectList()
+                .block();
+    }
+
+    @Override
+    public Movie addMovie(Movie newMovie) {
+        return reactiveMoviesRestClient.addMovie(newMovie).block();
+    }
+
+    @Override
+    public Movie editMovie(Integer movieId, Movie editMovie) {
+        return reactiveMoviesRestClient.editMovie(movieId, editMovie).block();
+    }
+
+    @Override
+    public String deleteMovie(Integer movieId) {
+        return reactiveMoviesRestClient.deleteMovie(movieId).block();
+    }
+
+    @Override
+    public String deleteMovieByName(String movieName) {
+        return reactiveMoviesRestClient.deleteMovieByName(movieName).block();
+    }
+
+    @Override
+    public BulkMutationSummary applyMutations(Stream<MovieMutation> mutations, BulkMutationSettings settings) {
+        return reactiveMoviesRestClient.applyMutations(Flux.fromStream(mutations), settings).block();
+    }
+}
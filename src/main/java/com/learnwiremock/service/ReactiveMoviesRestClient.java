@@ -0,0 +1,376 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.catalog.MovieCatalog;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.BulkMutationSummary;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.dto.MovieMutation;
+import com.learnwiremock.exception.MovieErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking client for the movie service. Every operation returns a cold {@link Mono} or {@link Flux}
+ * that issues its request on subscription, and every failure is mapped to a {@link MovieErrorResponse}.
+ * <p>
+ * Concurrent id, name and year lookups for the same URI are coalesced into a single exchange by default; all
+ * subscribers then receive the same {@link Movie} instances or the same error.
+ * <p>
+ * {@link MovieCallInterceptor}s wrap each physical exchange, e.g. to record metrics; without any the calls are
+ * not decorated at all.
+ */
+@Slf4j
+public class ReactiveMoviesRestClient {
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final WebClient webClient;
+    private final RequestCoalescer requestCoalescer;
+    private final List<MovieCallInterceptor> interceptors;
+    private final MovieErrors errors;
+    private final ConditionalRequests conditionalRequests = new ConditionalRequests();
+    private volatile String baseUrl;
+
+    public ReactiveMoviesRestClient(WebClient webClient) {
+        this(webClient, true);
+    }
+
+    public ReactiveMoviesRestClient(WebClient webClient, boolean coalesceLookups) {
+        this(webClient, coalesceLookups, Collections.emptyList());
+    }
+
+    public ReactiveMoviesRestClient(WebClient webClient, boolean coalesceLookups, List<MovieCallInterceptor> interceptors) {
+        this(webClient, coalesceLookups, interceptors, MovieErrorSettings.defaults());
+    }
+
+    public ReactiveMoviesRestClient(WebClient webClient, boolean coalesceLookups, List<MovieCallInterceptor> interceptors,
+                                    MovieErrorSettings errorSettings) {
+        this.webClient = webClient;
+        this.requestCoalescer = coalesceLookups ? new RequestCoalescer() : null;
+        this.interceptors = new ArrayList<>(interceptors);
+        this.errors = new MovieErrors(errorSettings);
+    }
+
+    /**
+     * The response array is tokenized incrementally by Jackson's non-blocking parser, so each movie is emitted as
+     * soon as it has been read and the catalog is never buffered as a whole unless the subscriber collects it. The
+     * request is never conditional and nothing of the response is kept; use {@link #retrieveMovieCatalog()} to
+     * revalidate a retained catalog.
+     */
+    public Flux<Movie> retrieveAllMovies() {
+        String uri = MoviesAppConstants.GET_ALL_MOVIES_V1;
+        return intercept(MovieOperation.RETRIEVE_ALL_MOVIES,
+                retrieve(MovieOperation.RETRIEVE_ALL_MOVIES, webClient.get().uri(base -> resolve(base, uri)))
+                        .bodyToFlux(Movie.class));
+    }
+
+    /**
+     * Folds the streamed catalog into a {@link MovieCatalog} as it is decoded, so only the compact copy is retained.
+     * <p>
+     * When the service sends an {@code ETag} or {@code Last-Modified}, the catalog is kept and the next request is
+     * made conditional; a {@code 304 Not Modified} returns the previously retrieved instance without decoding.
+     */
+    public Mono<MovieCatalog> retrieveMovieCatalog() {
+        return intercept(MovieOperation.RETRIEVE_ALL_MOVIES, conditionalGetMovieCatalog());
+    }
+
+    public Mono<Movie> retrieveMovieById(Integer movieId) {
+        String movieByIdUri = MovieUriTemplate.MOVIE_BY_ID.expand(movieId);
+        return coalesce(movieByIdUri,
+                () -> intercept(MovieOperation.RETRIEVE_MOVIE_BY_ID,
+                        retrieve(MovieOperation.RETRIEVE_MOVIE_BY_ID, webClient.get().uri(base -> resolve(base, movieByIdUri)))
+                                .bodyToMono(Movie.class)));
+    }
+
+    /**
+     * Like {@link #retrieveMovieById}, but completes empty if the movie service has no movie with the id. The 404 is
+     * an expected status by default, so a miss costs no stack trace and no error log.
+     */
+    public Mono<Movie> findMovieById(Integer movieId) {
+        return retrieveMovieById(movieId)
+                .onErrorResume(MovieErrorResponse.class, e -> e.isNotFound() ? Mono.empty() : Mono.error(e));
+    }
+
+    /**
+     * Looks up every id with at most {@code maxConcurrency} requests outstanding and emits one result per id in
+     * input order. A failed lookup is reported in its result rather than failing the whole batch.
+     */
+    public Flux<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency) {
+        return Flux.fromIterable(movieIds)
+                .flatMapSequential(this::lookupMovieById, maxConcurrency);
+    }
+
+    /**
+     * Like {@link #retrieveMoviesByIds(Collection, int)}, but gives up after {@code timeout}: lookups still
+     * outstanding at that point are cancelled and reported as {@link MovieLookupResult.Status#TIMED_OUT}. Their
+     * exchanges are cancelled too, unless another caller has joined the same coalesced lookup.
+     */
+    public Mono<List<MovieLookupResult>> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency, Duration timeout) {
+        List<Integer> ids = new ArrayList<>(movieIds);
+        return Mono.defer(() -> {
+            MovieLookupResult[] results = new MovieLookupResult[ids.size()];
+            return Flux.range(0, ids.size())
+                    .flatMap(index -> lookupMovieById(ids.get(index))
+                            .map(result -> Tuples.of(index, result)), maxConcurrency)
+                    .take(timeout)
+                    .doOnNext(indexedResult -> results[indexedResult.getT1()] = indexedResult.getT2())
+                    .then(Mono.fromCallable(() -> {
+                        List<MovieLookupResult> lookupResults = new ArrayList<>(results.length);
+                        for (int index = 0; index < results.length; index++) {
+                            lookupResults.add(results[index] != null ? results[index] : MovieLookupResult.timedOut(ids.get(index)));
+                        }
+                        return lookupResults;
+                    }));
+        });
+    }
+
+    public Flux<Movie> retrieveMoviesByName(String movieName) {
+        String retrieveMoviesByNameUri = MovieUriTemplate.MOVIES_BY_NAME.expand(movieName);
+
+        return coalesceList(retrieveMoviesByNameUri, () -> intercept(MovieOperation.RETRIEVE_MOVIES_BY_NAME,
+                retrieve(MovieOperation.RETRIEVE_MOVIES_BY_NAME, webClient.get().uri(base -> resolve(base, retrieveMoviesByNameUri)))
+                        .bodyToFlux(Movie.class)));
+    }
+
+    public Flux<Movie> retrieveMoviesByYear(Integer year) {
+        String retrieveMoviesByYearUri = MovieUriTemplate.MOVIES_BY_YEAR.expand(year);
+
+        return coalesceList(retrieveMoviesByYearUri, () -> intercept(MovieOperation.RETRIEVE_MOVIES_BY_YEAR,
+                retrieve(MovieOperation.RETRIEVE_MOVIES_BY_YEAR, webClient.get().uri(base -> resolve(base, retrieveMoviesByYearUri)))
+                        .bodyToFlux(Movie.class)));
+    }
+
+    public Mono<Movie> addMovie(Movie newMovie) {
+        return intercept(MovieOperation.ADD_MOVIE, retrieve(MovieOperation.ADD_MOVIE,
+                webClient.post().uri(base -> resolve(base, MoviesAppConstants.ADD_MOVIE_V1)).syncBody(newMovie))
+                .bodyToMono(Movie.class));
+    }
+
+    public Mono<Movie> editMovie(Integer movieId, Movie editMovie) {
+        return intercept(MovieOperation.EDIT_MOVIE,
+                retrieve(MovieOperation.EDIT_MOVIE, webClient.put()
+                        .uri(base -> resolve(base, MovieUriTemplate.MOVIE_BY_ID.expand(movieId)))
+                        .syncBody(editMovie))
+                        .bodyToMono(Movie.class));
+    }
+
+    public Mono<String> deleteMovie(Integer movieId) {
+        return intercept(MovieOperation.DELETE_MOVIE,
+                retrieve(MovieOperation.DELETE_MOVIE,
+                        webClient.delete().uri(base -> resolve(base, MovieUriTemplate.MOVIE_BY_ID.expand(movieId))))
+                        .bodyToMono(String.class));
+    }
+
+    public Mono<String> deleteMovieByName(String movieName) {
+        String deleteMovieByNameUri = MovieUriTemplate.MOVIES_BY_NAME.expand(movieName);
+
+        return intercept(MovieOperation.DELETE_MOVIE_BY_NAME, retrieve(MovieOperation.DELETE_MOVIE_BY_NAME,
+                webClient.delete().uri(base -> resolve(base, deleteMovieByNameUri)))
+                .bodyToMono(Void.class))
+                .then(Mono.just("Movie deleted successfully"));
+    }
+
+    /**
+     * Applies every mutation with up to {@link BulkMutationSettings#getWindow()} requests in flight over the pooled
+     * keep-alive connections. Transient failures are retried with jittered exponential backoff: edits and deletes
+     * on connection errors, 429 and 502-504; adds only on 429 and 503, where the service has not processed the
+     * request. Mutations an interceptor already retries, such as edits and deletes behind
+     * {@link ResilienceMovieCallInterceptor}, are left to it instead. Mutations run concurrently, so a batch must not
+     * contain dependent changes to the same movie.
+     */
+    public Mono<BulkMutationSummary> applyMutations(Flux<MovieMutation> mutations, BulkMutationSettings settings) {
+        return mutations
+                .flatMap(mutation -> retryTransient(mutation, applyMutation(mutation), settings)
+                        .thenReturn(Optional.<BulkMutationSummary.Failure>empty())
+                        .onErrorResume(MovieErrorResponse.class, e -> Mono.just(Optional.of(
+                                new BulkMutationSummary.Failure(mutation, e.getStatusCode(), e.getMessage())))),
+                        settings.getWindow())
+                .collect(BulkMutationAccumulator::new, BulkMutationAccumulator::add)
+                .map(BulkMutationAccumulator::toSummary);
+    }
+
+    private Mono<?> applyMutation(MovieMutation mutation) {
+        switch (mutation.getType()) {
+            case ADD:
+                return addMovie(mutation.getMovie());
+            case EDIT:
+                return editMovie(mutation.getMovieId(), mutation.getMovie());
+            case DELETE:
+                return deleteMovie(mutation.getMovieId());
+            default:
+                return Mono.error(new IllegalArgumentException("Unsupported mutation type: " + mutation.getType()));
+        }
+    }
+
+    private Mono<?> retryTransient(MovieMutation mutation, Mono<?> call, BulkMutationSettings settings) {
+        MovieOperation operation = operation(mutation);
+        if (interceptors.stream().anyMatch(interceptor -> interceptor.retries(operation))) {
+            return call;
+        }
+        return call.retryWhen(Retries.exponentialBackoff(settings.getMaxRetries(), settings.getFirstBackoff(),
+                e -> isTransient(mutation, e)));
+    }
+
+    static MovieOperation operation(MovieMutation mutation) {
+        switch (mutation.getType()) {
+            case ADD:
+                return MovieOperation.ADD_MOVIE;
+            case EDIT:
+                return MovieOperation.EDIT_MOVIE;
+            default:
+                return MovieOperation.DELETE_MOVIE;
+        }
+    }
+
+    static boolean isTransient(MovieMutation mutation, Throwable e) {
+        if (!(e instanceof MovieErrorResponse)) {
+            return false;
+        }
+        int statusCode = ((MovieErrorResponse) e).getStatusCode();
+        if (mutation.getType() == MovieMutation.Type.ADD) {
+            return statusCode == HttpStatus.TOO_MANY_REQUESTS.value() || statusCode == HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
+        return Retries.isTransientStatus(statusCode);
+    }
+
+    private Mono<MovieLookupResult> lookupMovieById(Integer movieId) {
+        return retrieveMovieById(movieId)
+                .map(movie -> MovieLookupResult.found(movieId, movie))
+                .defaultIfEmpty(MovieLookupResult.notFound(movieId, null))
+                .onErrorResume(MovieErrorResponse.class, e -> Mono.just(e.isNotFound()
+                        ? MovieLookupResult.notFound(movieId, e)
+                        : MovieLookupResult.failed(movieId, e)));
+    }
+
+    /**
+     * Issues the catalog request, conditional on the validators of the last full response, and remembers the
+     * decoded catalog if the response carries validators.
+     */
+    private Mono<MovieCatalog> conditionalGetMovieCatalog() {
+        String uri = MoviesAppConstants.GET_ALL_MOVIES_V1;
+        return Mono.defer(() -> {
+            ConditionalRequests.Validated previous = conditionalRequests.lookup(uri);
+            return webClient.get().uri(base -> resolve(base, uri))
+                    .headers(headers -> {
+                        if (previous != null) {
+                            previous.addPreconditions(headers);
+                        }
+                    })
+                    .exchange()
+                    .flatMap(response -> {
+                        if (previous != null && response.rawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                            return response.bodyToMono(Void.class)
+                                    .then(Mono.just(previous.catalog()));
+                        }
+                        if (response.rawStatusCode() / 100 != 2) {
+                            return errorResponse(MovieOperation.RETRIEVE_ALL_MOVIES, response).flatMap(Mono::error);
+                        }
+                        HttpHeaders headers = response.headers().asHttpHeaders();
+                        Mono<MovieCatalog> catalog = response.bodyToFlux(Movie.class)
+                                .collect(MovieCatalog::builder, MovieCatalog.Builder::add)
+                                .map(MovieCatalog.Builder::build);
+                        if (!ConditionalRequests.hasValidators(headers)) {
+                            conditionalRequests.forget(uri);
+                            return catalog;
+                        }
+                        return catalog.doOnNext(modified -> conditionalRequests.remember(uri, headers, modified));
+                    });
+        });
+    }
+
+    int inFlightLookups() {
+        return requestCoalescer == null ? 0 : requestCoalescer.inFlightCount();
+    }
+
+    private <T> Mono<T> intercept(MovieOperation operation, Mono<T> exchange) {
+        Mono<T> call = exchange.onErrorMap(e -> errors.failure(operation, e));
+        for (int index = interceptors.size() - 1; index >= 0; index--) {
+            call = interceptors.get(index).interceptMono(operation, call);
+        }
+        return call;
+    }
+
+    private <T> Flux<T> intercept(MovieOperation operation, Flux<T> exchange) {
+        Flux<T> call = exchange.onErrorMap(e -> errors.failure(operation, e));
+        for (int index = interceptors.size() - 1; index >= 0; index--) {
+            call = interceptors.get(index).interceptFlux(operation, call);
+        }
+        return call;
+    }
+
+    /**
+     * Retrieves with error responses mapped straight to {@link MovieErrorResponse}, instead of WebClient's
+     * {@link WebClientResponseException} that would be mapped again.
+     */
+    private WebClient.ResponseSpec retrieve(MovieOperation operation, WebClient.RequestHeadersSpec<?> request) {
+        return request.retrieve().onStatus(HttpStatus::isError, response -> errorResponse(operation, response));
+    }
+
+    private Mono<MovieErrorResponse> errorResponse(MovieOperation operation, ClientResponse response) {
+        return response.bodyToMono(byte[].class)
+                .defaultIfEmpty(NO_BODY)
+                .map(body -> errors.errorResponse(operation, response.rawStatusCode(), body));
+    }
+
+    /**
+     * Resolves an encoded {@link MovieUriTemplate} expansion against the WebClient's base URL without encoding it
+     * again. The base URL is rendered once; it is the same for every request of a WebClient.
+     */
+    private URI resolve(UriBuilder base, String encodedUri) {
+        String resolvedBaseUrl = baseUrl;
+        if (resolvedBaseUrl == null) {
+            resolvedBaseUrl = base.build().toString();
+            if (resolvedBaseUrl.endsWith("/")) {
+                resolvedBaseUrl = resolvedBaseUrl.substring(0, resolvedBaseUrl.length() - 1);
+            }
+            baseUrl = resolvedBaseUrl;
+        }
+        return URI.create(resolvedBaseUrl + encodedUri);
+    }
+
+    private <T> Mono<T> coalesce(String uri, Supplier<Mono<T>> exchange) {
+        return requestCoalescer == null ? exchange.get() : requestCoalescer.coalesce(uri, exchange);
+    }
+
+    private Flux<Movie> coalesceList(String uri, Supplier<Flux<Movie>> exchange) {
+        if (requestCoalescer == null) {
+            return exchange.get();
+        }
+        return requestCoalescer.coalesce(uri, () -> exchange.get().collectList())
+                .flatMapIterable(movies -> movies);
+    }
+
+    private static final class BulkMutationAccumulator {
+        private long succeeded;
+        private final List<BulkMutationSummary.Failure> failures = new ArrayList<>();
+
+        void add(Optional<BulkMutationSummary.Failure> failure) {
+            if (failure.isPresent()) {
+                failures.add(failure.get());
+            } else {
+                succeeded++;
+            }
+        }
+
+        BulkMutationSummary toSummary() {
+            return new BulkMutationSummary(succeeded, failures);
+        }
+    }
+}
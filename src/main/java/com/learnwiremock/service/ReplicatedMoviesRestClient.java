@@ -0,0 +1,280 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.catalog.MovieCatalog;
+import com.learnwiremock.catalog.MovieCatalogIndex;
+import com.learnwiremock.catalog.MovieCatalogSnapshot;
+import com.learnwiremock.dto.BulkMutationSummary;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.dto.MovieMutation;
+import com.learnwiremock.exception.MovieErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Answers id, name and year lookups from a local replica of the catalog instead of the movie service. The replica
+ * is loaded with {@code retrieveAllMovies} on the first lookup, indexed with {@link MovieCatalogIndex} and replaced
+ * as a whole on every refresh: periodically and, unless disabled, in the background after each mutation made
+ * through this client. A lookup with no match throws the same 404 {@link MovieErrorResponse} as the service.
+ * <p>
+ * With a {@code snapshotPath} the client starts warm: it serves from the snapshot left by a previous run, written
+ * with {@link MovieCatalogSnapshot} after every successful load, and reconciles with the service in the background.
+ * <p>
+ * Reads are eventually consistent with the service; a failed refresh is logged and the previous replica is kept.
+ * {@link #close()} stops the periodic refresh.
+ */
+@Slf4j
+public class ReplicatedMoviesRestClient extends MoviesRestClient implements AutoCloseable {
+    private final ReactiveMoviesRestClient reactiveMoviesRestClient;
+    private final MovieReplicaSettings settings;
+    private final Lock initialLoadLock = new ReentrantLock();
+    private final Object snapshotLock = new Object();
+    private final AtomicLong loadsStarted = new AtomicLong();
+    private final Disposable periodicRefresh;
+    private volatile Replica replica;
+
+    public ReplicatedMoviesRestClient(WebClient webClient, MovieReplicaSettings settings) {
+        this(new ReactiveMoviesRestClient(webClient), settings);
+    }
+
+    public ReplicatedMoviesRestClient(ReactiveMoviesRestClient reactiveMoviesRestClient, MovieReplicaSettings settings) {
+        super(reactiveMoviesRestClient);
+        this.reactiveMoviesRestClient = reactiveMoviesRestClient;
+        this.settings = settings;
+        if (settings.getSnapshotPath() != null && startFromSnapshot(settings.getSnapshotPath())) {
+            load().subscribe(index -> {
+            }, this::logRefreshFailure);
+        }
+        Duration refreshInterval = settings.getRefreshInterval();
+        this.periodicRefresh = refreshInterval.isZero() || refreshInterval.isNegative()
+                ? null
+                : Flux.interval(refreshInterval, refreshInterval)
+                        .onBackpressureDrop()
+                        .concatMap(tick -> load().onErrorResume(this::logRefreshFailure))
+                        .subscribe();
+    }
+
+    @Override
+    public Movie retrieveMovieById(Integer movieId) {
+        return index().findMovieById(movieId)
+                .orElseThrow(() -> MovieErrorResponse.notFound("No Movie Available with the given Id - " + movieId));
+    }
+
+    @Override
+    public Optional<Movie> findMovieById(Integer movieId) {
+        return index().findMovieById(movieId);
+    }
+
+    @Override
+    public List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency) {
+        MovieCatalogIndex index = index();
+        List<MovieLookupResult> results = new ArrayList<>(movieIds.size());
+        for (Integer movieId : movieIds) {
+            results.add(index.findMovieById(movieId)
+                    .map(movie -> MovieLookupResult.found(movieId, movie))
+                    .orElseGet(() -> MovieLookupResult.notFound(movieId,
+                            MovieErrorResponse.notFound("No Movie Available with the given Id - " + movieId))));
+        }
+        return results;
+    }
+
+    @Override
+    public List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency, Duration timeout) {
+        return retrieveMoviesByIds(movieIds, maxConcurrency);
+    }
+
+    @Override
+    public List<Movie> retrieveMoviesByName(String movieName) {
+        List<Movie> movies = index().moviesByName(movieName);
+        if (movies.isEmpty()) {
+            throw MovieErrorResponse.notFound("No Movie Available with the given name - " + movieName);
+        }
+        return movies;
+    }
+
+    @Override
+    public List<Movie> retrieveMoviesByYear(Integer year) {
+        List<Movie> movies = index().moviesByYear(year);
+        if (movies.isEmpty()) {
+            throw MovieErrorResponse.notFound("No Movie Available with the given year -" + year);
+        }
+        return movies;
+    }
+
+    @Override
+    public Movie addMovie(Movie newMovie) {
+        Movie addedMovie = super.addMovie(newMovie);
+        onMutation();
+        return addedMovie;
+    }
+
+    @Override
+    public Movie editMovie(Integer movieId, Movie editMovie) {
+        Movie editedMovie = super.editMovie(movieId, editMovie);
+        onMutation();
+        return editedMovie;
+    }
+
+    @Override
+    public String deleteMovie(Integer movieId) {
+        String result = super.deleteMovie(movieId);
+        onMutation();
+        return result;
+    }
+
+    @Override
+    public String deleteMovieByName(String movieName) {
+        String result = super.deleteMovieByName(movieName);
+        onMutation();
+        return result;
+    }
+
+    @Override
+    public BulkMutationSummary applyMutations(Stream<MovieMutation> mutations, BulkMutationSettings settings) {
+        BulkMutationSummary summary = super.applyMutations(mutations, settings);
+        if (summary.getSucceeded() > 0) {
+            onMutation();
+        }
+        return summary;
+    }
+
+    /**
+     * Reloads the catalog and waits until the new replica is in place.
+     */
+    public void refresh() {
+        load().block();
+    }
+
+    @Override
+    public void close() {
+        if (periodicRefresh != null) {
+            periodicRefresh.dispose();
+        }
+    }
+
+    /**
+     * The first lookups wait for the initial load on a {@link Lock} rather than a monitor, so virtual threads
+     * blocked here do not pin their carrier threads.
+     */
+    private MovieCatalogIndex index() {
+        Replica current = replica;
+        if (current == null) {
+            initialLoadLock.lock();
+            try {
+                if (replica == null) {
+                    refresh();
+                }
+            } finally {
+                initialLoadLock.unlock();
+            }
+            current = replica;
+        }
+        return current.index;
+    }
+
+    private void onMutation() {
+        if (settings.isRefreshOnMutation()) {
+            load().subscribe(index -> {
+            }, this::logRefreshFailure);
+        }
+    }
+
+    /**
+     * Loads and indexes the catalog off the event loop. Loads can overlap; a load only replaces the replica if no
+     * load started after it has been installed already, so a slow, older snapshot never overwrites a newer one.
+     * A catalog the service reported as not modified is the instance already indexed and is neither re-indexed nor
+     * written to the snapshot again.
+     */
+    private Mono<MovieCatalogIndex> load() {
+        return Mono.defer(() -> {
+            long generation = loadsStarted.incrementAndGet();
+            return reactiveMoviesRestClient.retrieveMovieCatalog()
+                    .publishOn(Schedulers.parallel())
+                    .map(catalog -> {
+                        Replica current = replica;
+                        return current != null && current.index.catalog() == catalog
+                                ? current.index
+                                : MovieCatalogIndex.of(catalog);
+                    })
+                    .doOnNext(index -> {
+                        boolean modified = replica == null || replica.index != index;
+                        if (install(generation, index) && modified && settings.getSnapshotPath() != null) {
+                            Schedulers.elastic().schedule(() -> writeSnapshot(index.catalog(), generation));
+                        }
+                    });
+        });
+    }
+
+    private synchronized boolean install(long generation, MovieCatalogIndex index) {
+        if (replica == null || generation > replica.generation) {
+            replica = new Replica(generation, index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Installs the snapshot as generation 0, so any load from the service supersedes it.
+     */
+    private boolean startFromSnapshot(Path snapshotPath) {
+        if (!Files.exists(snapshotPath)) {
+            return false;
+        }
+        try {
+            install(0, MovieCatalogIndex.of(MovieCatalogSnapshot.read(snapshotPath)));
+            return true;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable movie catalog snapshot {}", snapshotPath, e);
+            return false;
+        }
+    }
+
+    /**
+     * Snapshots are written one at a time and only while their catalog is still the newest, so the file on disk
+     * never goes back to an older catalog.
+     */
+    private void writeSnapshot(MovieCatalog catalog, long generation) {
+        synchronized (snapshotLock) {
+            if (replica.generation != generation) {
+                return;
+            }
+            try {
+                MovieCatalogSnapshot.write(catalog, settings.getSnapshotPath());
+            } catch (IOException e) {
+                log.warn("Writing the movie catalog snapshot {} failed", settings.getSnapshotPath(), e);
+            }
+        }
+    }
+
+    private Mono<MovieCatalogIndex> logRefreshFailure(Throwable e) {
+        log.warn("Refreshing the movie catalog replica failed; keeping the previous one", e);
+        return Mono.empty();
+    }
+
+    private static final class Replica {
+        private final long generation;
+        private final MovieCatalogIndex index;
+
+        private Replica(long generation, MovieCatalogIndex index) {
+            this.generation = generation;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.learnwiremock.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight deduplication of identical requests: while an exchange for a key is outstanding, every other
+ * subscriber for that key joins it and receives the same value or error. The entry is dropped when the exchange
+ * signals its result, before any subscriber is notified, so nothing is cached beyond the lifetime of the request and
+ * a lookup made in reaction to the result always starts a fresh exchange (subscribers that already hold the shared
+ * {@link Mono} still see its result).
+ * <p>
+ * The exchange is shared by reference count: a subscriber that cancels only leaves it, and the exchange itself is
+ * cancelled, and its entry dropped, once every subscriber has cancelled.
+ * <p>
+ * Joining an outstanding exchange is a lock-free {@link ConcurrentHashMap#get}; only the first caller for a key
+ * pays for the {@code putIfAbsent}.
+ */
+final class RequestCoalescer {
+    private final ConcurrentMap<String, InFlight<?>> inFlight = new ConcurrentHashMap<>();
+
+    <T> Mono<T> coalesce(String key, Supplier<Mono<T>> exchange) {
+        return Mono.defer(() -> join(key, exchange).result);
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> InFlight<T> join(String key, Supplier<Mono<T>> exchange) {
+        InFlight<T> existing = (InFlight<T>) inFlight.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        InFlight<T> created = new InFlight<>(key, exchange.get());
+        existing = (InFlight<T>) inFlight.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    private final class InFlight<T> {
+        private final Mono<T> result;
+
+        private InFlight(String key, Mono<T> exchange) {
+            this.result = exchange
+                    .doOnSuccessOrError((value, error) -> inFlight.remove(key, this))
+                    .doOnCancel(() -> inFlight.remove(key, this))
+                    .flux()
+                    .replay(1)
+                    .refCount()
+                    .singleOrEmpty();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.exception.MovieErrorResponse;
+import com.learnwiremock.exception.MovieServiceBulkheadFullException;
+import com.learnwiremock.exception.MovieServiceCircuitOpenException;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a slow or failing movie service from exhausting the caller's threads and connections. Each call
+ * <ol>
+ * <li>takes one of {@link MovieResiliencePolicy#getMaxConcurrentCalls()} slots or fails with
+ * {@link MovieServiceBulkheadFullException},</li>
+ * <li>fails with {@link MovieServiceCircuitOpenException} while the circuit breaker is open,</li>
+ * <li>fails with a {@link MovieErrorResponse} caused by a {@link TimeoutException} once its deadline passes, marking
+ * the cancelled attempt as timed out for {@link MovieServiceLoadBalancer}, and</li>
+ * <li>is retried with jittered exponential backoff on connection failures, timeouts, 429 and 502-504 if the
+ * operation is idempotent. Streamed lists are only retried if no movie has been emitted yet.</li>
+ * </ol>
+ * Connection failures, timeouts, 429 and 5xx count as failures for the circuit breaker; other responses, including
+ * 404, show the service is healthy. Retries hold on to their bulkhead slot and each attempt passes the breaker.
+ * <p>
+ * An attempt the client rejects itself with a {@link MovieServiceBulkheadFullException}, e.g. one shed by an
+ * {@link AdaptiveConcurrencyMovieCallInterceptor} placed after this one, never reached the movie service: it is not
+ * retried, since that would only add load while the client is saturated, and the breaker records no outcome for it.
+ */
+public final class ResilienceMovieCallInterceptor implements MovieCallInterceptor {
+    private final MovieResiliencePolicy policy;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicInteger inFlightCalls = new AtomicInteger();
+
+    public ResilienceMovieCallInterceptor(MovieResiliencePolicy policy) {
+        this.policy = policy;
+        this.circuitBreaker = new CircuitBreaker(policy.getCircuitBreakerWindow(), policy.getCircuitBreakerFailureRate(),
+                policy.getCircuitBreakerOpenDuration(), policy.getCircuitBreakerHalfOpenCalls());
+    }
+
+    @Override
+    public <T> Mono<T> interceptMono(MovieOperation operation, Mono<T> call) {
+        Mono<T> attempt = Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                return Mono.error(circuitOpen(operation));
+            }
+            AttemptDeadline deadline = new AttemptDeadline();
+            return call
+                    .timeout(deadline(operation, deadline))
+                    .onErrorMap(TimeoutException.class, MovieErrorResponse::new)
+                    .doOnSuccessOrError((value, error) -> onResult(error))
+                    .doOnCancel(circuitBreaker::onCancel)
+                    .subscriberContext(deadline::putIn);
+        });
+        return limitConcurrency(operation, attempt.retryWhen(Retries.exponentialBackoff(policy.getMaxRetries(),
+                policy.getFirstBackoff(), error -> isRetriable(operation, error))));
+    }
+
+    @Override
+    public <T> Flux<T> interceptFlux(MovieOperation operation, Flux<T> call) {
+        Flux<T> retriedCall = Flux.defer(() -> {
+            AtomicBoolean emitted = new AtomicBoolean();
+            Flux<T> attempt = Flux.defer(() -> {
+                if (!circuitBreaker.tryAcquire()) {
+                    return Flux.error(circuitOpen(operation));
+                }
+                AttemptDeadline deadline = new AttemptDeadline();
+                return call
+                        .timeout(deadline(operation, deadline), movie -> Mono.never())
+                        .onErrorMap(TimeoutException.class, MovieErrorResponse::new)
+                        .doOnNext(movie -> emitted.lazySet(true))
+                        .doOnComplete(() -> onResult(null))
+                        .doOnError(this::onResult)
+                        .doOnCancel(circuitBreaker::onCancel)
+                        .subscriberContext(deadline::putIn);
+            });
+            return attempt.retryWhen(Retries.exponentialBackoff(policy.getMaxRetries(), policy.getFirstBackoff(),
+                    error -> !emitted.get() && isRetriable(operation, error)));
+        });
+        return Flux.defer(() -> {
+            if (!tryEnter()) {
+                return Flux.error(bulkheadFull(operation));
+            }
+            Runnable release = releaseOnce();
+            return retriedCall.doOnTerminate(release).doOnCancel(release);
+        });
+    }
+
+    @Override
+    public boolean retries(MovieOperation operation) {
+        return operation.isIdempotent() && policy.getMaxRetries() > 0;
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    int inFlightCalls() {
+        return inFlightCalls.get();
+    }
+
+    private <T> Mono<T> limitConcurrency(MovieOperation operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryEnter()) {
+                return Mono.error(bulkheadFull(operation));
+            }
+            Runnable release = releaseOnce();
+            return call.doOnSuccessOrError((value, error) -> release.run()).doOnCancel(release);
+        });
+    }
+
+    /**
+     * Fires once the attempt's deadline has passed, after marking {@code deadline} expired so that exchange filters
+     * see why they are being cancelled.
+     */
+    private Mono<Long> deadline(MovieOperation operation, AttemptDeadline deadline) {
+        return Mono.delay(policy.timeout(operation)).doOnNext(tick -> deadline.expire());
+    }
+
+    private boolean tryEnter() {
+        if (inFlightCalls.incrementAndGet() > policy.getMaxConcurrentCalls()) {
+            inFlightCalls.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Frees the slot taken by {@link #tryEnter()} on the first terminal or cancel signal. Unlike {@code doFinally},
+     * this runs before the result is passed on, so a caller that blocks on one call and then starts the next never
+     * finds its own previous call still holding a slot.
+     */
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                inFlightCalls.decrementAndGet();
+            }
+        };
+    }
+
+    private void onResult(Throwable error) {
+        if (error instanceof MovieServiceBulkheadFullException) {
+            circuitBreaker.onCancel();
+        } else if (error != null && isServiceFailure(error)) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private static boolean isServiceFailure(Throwable error) {
+        if (!(error instanceof MovieErrorResponse)) {
+            return true;
+        }
+        int statusCode = ((MovieErrorResponse) error).getStatusCode();
+        return statusCode == 0 || statusCode == HttpStatus.TOO_MANY_REQUESTS.value() || statusCode >= 500;
+    }
+
+    private static boolean isRetriable(MovieOperation operation, Throwable error) {
+        return operation.isIdempotent()
+                && error instanceof MovieErrorResponse
+                && !(error instanceof MovieServiceCircuitOpenException)
+                && !(error instanceof MovieServiceBulkheadFullException)
+                && Retries.isTransientStatus(((MovieErrorResponse) error).getStatusCode());
+    }
+
+    private static MovieServiceCircuitOpenException circuitOpen(MovieOperation operation) {
+        return new MovieServiceCircuitOpenException(
+                "Movie service circuit breaker is open; " + operation.operationName() + " was not attempted");
+    }
+
+    private MovieServiceBulkheadFullException bulkheadFull(MovieOperation operation) {
+        return new MovieServiceBulkheadFullException("Too many concurrent calls to the movie service (limit "
+                + policy.getMaxConcurrentCalls() + "); " + operation.operationName() + " was not attempted");
+    }
+}
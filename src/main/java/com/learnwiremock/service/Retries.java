@@ -0,0 +1,55 @@
+package com.learnwiremock.service;
+
+import org.reactivestreams.Publisher;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@code retryWhen} companions shared by the client's retrying call paths.
+ */
+final class Retries {
+    private static final double JITTER = 0.5;
+
+    private Retries() {
+    }
+
+    /**
+     * Retries errors accepted by {@code retriable} up to {@code maxRetries} times, waiting
+     * {@code firstBackoff * 2^attempt} with +/-50% random jitter between attempts so that clients failing together
+     * do not retry in lockstep. Any other error, or the last one, is propagated unchanged.
+     */
+    static Function<Flux<Throwable>, Publisher<?>> exponentialBackoff(int maxRetries, Duration firstBackoff,
+                                                                      Predicate<Throwable> retriable) {
+        return errors -> errors.index().concatMap(indexedError -> {
+            long attempt = indexedError.getT1();
+            Throwable error = indexedError.getT2();
+            if (attempt >= maxRetries || !retriable.test(error)) {
+                return Mono.error(error);
+            }
+            return Mono.delay(backoff(firstBackoff, attempt));
+        });
+    }
+
+    /**
+     * Connection failures (status 0), 429 and 502-504 are worth retrying; anything else will fail the same way again.
+     */
+    static boolean isTransientStatus(int statusCode) {
+        return statusCode == 0
+                || statusCode == HttpStatus.TOO_MANY_REQUESTS.value()
+                || statusCode == HttpStatus.BAD_GATEWAY.value()
+                || statusCode == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || statusCode == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    static Duration backoff(Duration firstBackoff, long attempt) {
+        long baseMillis = firstBackoff.toMillis() << Math.min(attempt, 20);
+        double jitter = 1 + JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Duration.ofMillis(Math.max(1, (long) (baseMillis * jitter)));
+    }
+}
@@ -0,0 +1,548 @@
+package com.learnwiremock.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.learnwiremock.catalog.MovieCatalog;
+import com.learnwiremock.codec.MovieCodecs;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.BulkMutationSummary;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.dto.MovieMutation;
+import com.learnwiremock.exception.MovieErrorResponse;
+import com.learnwiremock.transport.MoviesTransport;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Thread-per-request implementation of the client's calls: every exchange runs on the calling thread through a
+ * {@link MoviesTransport} and bodies are decoded from the response stream with {@link MovieCodecs}. Batch lookups
+ * and bulk mutations fan out as one task per request, either on a fresh executor from {@code fanOutExecutors} that
+ * is shut down once the fan-out completes, so with a virtual thread per task the fan-out costs no platform threads,
+ * or on a pool of at most {@value #SHARED_FAN_OUT_THREADS} daemon threads shared by all transport-based clients.
+ * <p>
+ * With {@link MovieCallInterceptor}s, each exchange is wrapped in the same pipeline as on
+ * {@link ReactiveMoviesRestClient}: it is subscribed to on a fan-out executor from {@code fanOutExecutors}, or on
+ * {@link Schedulers#elastic()} alongside the shared pool, and the calling thread waits for the intercepted result,
+ * so deadlines, retries and hedges neither tie up the caller nor run exchanges on timer threads. Without
+ * interceptors, exchanges run on the calling thread and the transport's own timeouts are the only bound on a call.
+ * Either way there is no load balancing across replicas, lookups are not coalesced, and catalog requests are not
+ * conditional.
+ * <p>
+ * Nothing here synchronizes around a blocking call, so callers on virtual threads are never pinned.
+ */
+final class TransportMoviesCalls implements MoviesCalls {
+    private static final ObjectReader MOVIE_READER = MovieCodecs.movieReader();
+    private static final String MOVIE_DELETED = "Movie deleted successfully";
+    static final int SHARED_FAN_OUT_THREADS = 64;
+    private static final ExecutorService SHARED_FAN_OUT = sharedFanOutExecutor();
+
+    private final MoviesTransport transport;
+    private final Supplier<ExecutorService> fanOutExecutors;
+    private final boolean shutDownFanOut;
+    private final List<MovieCallInterceptor> interceptors;
+    private final MovieErrors errors;
+
+    TransportMoviesCalls(MoviesTransport transport, List<MovieCallInterceptor> interceptors,
+                         MovieErrorSettings errorSettings) {
+        this(transport, () -> SHARED_FAN_OUT, false, interceptors, errorSettings);
+    }
+
+    TransportMoviesCalls(MoviesTransport transport, Supplier<ExecutorService> fanOutExecutors,
+                         List<MovieCallInterceptor> interceptors, MovieErrorSettings errorSettings) {
+        this(transport, fanOutExecutors, true, interceptors, errorSettings);
+    }
+
+    private TransportMoviesCalls(MoviesTransport transport, Supplier<ExecutorService> fanOutExecutors,
+                                 boolean shutDownFanOut, List<MovieCallInterceptor> interceptors,
+                                 MovieErrorSettings errorSettings) {
+        this.transport = transport;
+        this.fanOutExecutors = fanOutExecutors;
+        this.shutDownFanOut = shutDownFanOut;
+        this.interceptors = Collections.unmodifiableList(new ArrayList<>(interceptors));
+        this.errors = new MovieErrors(errorSettings);
+    }
+
+    @Override
+    public List<Movie> retrieveAllMovies() {
+        try (Stream<Movie> movies = streamAllMovies()) {
+            return movies.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * With interceptors, they see the exchange as a stream of movies, as for {@link ReactiveMoviesRestClient}, and
+     * movies are decoded ahead of the caller up to the stream's prefetch.
+     */
+    @Override
+    public Stream<Movie> streamAllMovies() {
+        MovieOperation operation = MovieOperation.RETRIEVE_ALL_MOVIES;
+        MoviesTransport.Request request = MoviesTransport.Request.get(MoviesAppConstants.GET_ALL_MOVIES_V1);
+        if (interceptors.isEmpty()) {
+            MoviesTransport.Response response = send(operation, request);
+            try {
+                Iterator<Movie> movies = movieIterator(operation, response);
+                return StreamSupport.stream(Spliterators.spliteratorUnknownSize(movies,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                        .onClose(() -> closeQuietly(response));
+            } catch (RuntimeException e) {
+                closeQuietly(response);
+                throw e;
+            }
+        }
+        ExecutorService executor = shutDownFanOut ? fanOutExecutors.get() : null;
+        Flux<Movie> movies = Flux.using(() -> send(operation, request),
+                response -> Flux.fromIterable(() -> movieIterator(operation, response)),
+                TransportMoviesCalls::closeQuietly);
+        Stream<Movie> stream = intercept(operation, movies.subscribeOn(scheduler(executor))).toStream();
+        return executor != null ? stream.onClose(executor::shutdownNow) : stream;
+    }
+
+    @Override
+    public MovieCatalog retrieveMovieCatalog() {
+        MovieCatalog.Builder builder = MovieCatalog.builder();
+        try (Stream<Movie> movies = streamAllMovies()) {
+            movies.forEach(builder::add);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Movie retrieveMovieById(Integer movieId) {
+        return readMovie(MovieOperation.RETRIEVE_MOVIE_BY_ID, MoviesTransport.Request.get(MovieUriTemplate.MOVIE_BY_ID.expand(movieId)));
+    }
+
+    @Override
+    public Optional<Movie> findMovieById(Integer movieId) {
+        MovieOperation operation = MovieOperation.RETRIEVE_MOVIE_BY_ID;
+        MoviesTransport.Request request = MoviesTransport.Request.get(MovieUriTemplate.MOVIE_BY_ID.expand(movieId));
+        return call(operation, () -> {
+            try (MoviesTransport.Response response = exchange(operation, request)) {
+                if (response.statusCode() == HttpStatus.NOT_FOUND.value()) {
+                    StreamUtils.drain(response.body());
+                    return Optional.<Movie>empty();
+                }
+                return Optional.ofNullable(decodeMovie(checkStatus(operation, response)));
+            } catch (IOException e) {
+                throw failure(operation, e);
+            }
+        });
+    }
+
+    @Override
+    public List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency) {
+        return lookupMoviesByIds(new ArrayList<>(movieIds), maxConcurrency, Long.MAX_VALUE);
+    }
+
+    @Override
+    public List<MovieLookupResult> retrieveMoviesByIds(Collection<Integer> movieIds, int maxConcurrency, Duration timeout) {
+        return lookupMoviesByIds(new ArrayList<>(movieIds), maxConcurrency, System.nanoTime() + timeout.toNanos());
+    }
+
+    @Override
+    public List<Movie> retrieveMoviesByName(String movieName) {
+        return readMovies(MovieOperation.RETRIEVE_MOVIES_BY_NAME,
+                MoviesTransport.Request.get(MovieUriTemplate.MOVIES_BY_NAME.expand(movieName)));
+    }
+
+    @Override
+    public List<Movie> retrieveMoviesByYear(Integer year) {
+        return readMovies(MovieOperation.RETRIEVE_MOVIES_BY_YEAR,
+                MoviesTransport.Request.get(MovieUriTemplate.MOVIES_BY_YEAR.expand(year)));
+    }
+
+    @Override
+    public Movie addMovie(Movie newMovie) {
+        return readMovie(MovieOperation.ADD_MOVIE,
+                MoviesTransport.Request.post(MoviesAppConstants.ADD_MOVIE_V1, encode(MovieOperation.ADD_MOVIE, newMovie)));
+    }
+
+    @Override
+    public Movie editMovie(Integer movieId, Movie editMovie) {
+        return readMovie(MovieOperation.EDIT_MOVIE,
+                MoviesTransport.Request.put(MovieUriTemplate.MOVIE_BY_ID.expand(movieId), encode(MovieOperation.EDIT_MOVIE, editMovie)));
+    }
+
+    @Override
+    public String deleteMovie(Integer movieId) {
+        MovieOperation operation = MovieOperation.DELETE_MOVIE;
+        MoviesTransport.Request request = MoviesTransport.Request.delete(MovieUriTemplate.MOVIE_BY_ID.expand(movieId));
+        return call(operation, () -> {
+            try (MoviesTransport.Response response = send(operation, request)) {
+                return StreamUtils.copyToString(response.body(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw failure(operation, e);
+            }
+        });
+    }
+
+    @Override
+    public String deleteMovieByName(String movieName) {
+        MovieOperation operation = MovieOperation.DELETE_MOVIE_BY_NAME;
+        MoviesTransport.Request request = MoviesTransport.Request.delete(MovieUriTemplate.MOVIES_BY_NAME.expand(movieName));
+        return call(operation, () -> {
+            try (MoviesTransport.Response response = send(operation, request)) {
+                StreamUtils.drain(response.body());
+                return MOVIE_DELETED;
+            } catch (IOException e) {
+                throw failure(operation, e);
+            }
+        });
+    }
+
+    /**
+     * Keeps up to {@link BulkMutationSettings#getWindow()} mutations in flight, retrying transient failures with the
+     * same policy as {@link ReactiveMoviesRestClient#applyMutations}, unless an interceptor retries them itself; the
+     * backoff sleeps the task's own thread.
+     */
+    @Override
+    public BulkMutationSummary applyMutations(Stream<MovieMutation> mutations, BulkMutationSettings settings) {
+        Semaphore window = new Semaphore(settings.getWindow());
+        LongAdder succeeded = new LongAdder();
+        Queue<BulkMutationSummary.Failure> failures = new ConcurrentLinkedQueue<>();
+        AtomicReference<RuntimeException> unexpected = new AtomicReference<>();
+        ExecutorService executor = fanOutExecutors.get();
+        try {
+            Iterator<MovieMutation> pending = mutations.iterator();
+            while (pending.hasNext() && unexpected.get() == null) {
+                MovieMutation mutation = pending.next();
+                window.acquire();
+                executor.execute(() -> {
+                    try {
+                        applyMutation(mutation, settings);
+                        succeeded.increment();
+                    } catch (MovieErrorResponse e) {
+                        failures.add(new BulkMutationSummary.Failure(mutation, e.getStatusCode(), e.getMessage()));
+                    } catch (RuntimeException e) {
+                        unexpected.compareAndSet(null, e);
+                    } finally {
+                        window.release();
+                    }
+                });
+            }
+            window.acquire(settings.getWindow());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MovieErrorResponse(e);
+        } finally {
+            if (shutDownFanOut) {
+                executor.shutdownNow();
+            }
+        }
+        if (unexpected.get() != null) {
+            throw unexpected.get();
+        }
+        return new BulkMutationSummary(succeeded.sum(), new ArrayList<>(failures));
+    }
+
+    private void applyMutation(MovieMutation mutation, BulkMutationSettings settings) {
+        MovieOperation operation = ReactiveMoviesRestClient.operation(mutation);
+        boolean retriedByInterceptor = interceptors.stream().anyMatch(interceptor -> interceptor.retries(operation));
+        for (int attempt = 0; ; attempt++) {
+            try {
+                switch (mutation.getType()) {
+                    case ADD:
+                        addMovie(mutation.getMovie());
+                        return;
+                    case EDIT:
+                        editMovie(mutation.getMovieId(), mutation.getMovie());
+                        return;
+                    case DELETE:
+                        deleteMovie(mutation.getMovieId());
+                        return;
+                    default:
+                        throw new IllegalArgumentException("Unsupported mutation type: " + mutation.getType());
+                }
+            } catch (MovieErrorResponse e) {
+                if (retriedByInterceptor || attempt >= settings.getMaxRetries()
+                        || !ReactiveMoviesRestClient.isTransient(mutation, e)) {
+                    throw e;
+                }
+                sleep(Retries.backoff(settings.getFirstBackoff(), attempt), e);
+            }
+        }
+    }
+
+    /**
+     * Looks up the ids with at most {@code maxConcurrency} requests in flight; lookups not finished by
+     * {@code deadline} (a {@link System#nanoTime()} value) are cancelled and reported as timed out.
+     */
+    private List<MovieLookupResult> lookupMoviesByIds(List<Integer> movieIds, int maxConcurrency, long deadline) {
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Future<MovieLookupResult>> lookups = new ArrayList<>(movieIds.size());
+        ExecutorService executor = fanOutExecutors.get();
+        try {
+            for (Integer movieId : movieIds) {
+                if (!permits.tryAcquire(remainingNanos(deadline), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                lookups.add(executor.submit(() -> {
+                    try {
+                        return lookupMovieById(movieId);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            List<MovieLookupResult> results = new ArrayList<>(movieIds.size());
+            for (int index = 0; index < movieIds.size(); index++) {
+                MovieLookupResult result = index < lookups.size() ? await(lookups.get(index), deadline) : null;
+                results.add(result != null ? result : MovieLookupResult.timedOut(movieIds.get(index)));
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MovieErrorResponse(e);
+        } finally {
+            if (shutDownFanOut) {
+                executor.shutdownNow();
+            } else {
+                lookups.forEach(lookup -> lookup.cancel(true));
+            }
+        }
+    }
+
+    private MovieLookupResult lookupMovieById(Integer movieId) {
+        try {
+            Movie movie = retrieveMovieById(movieId);
+            return movie != null ? MovieLookupResult.found(movieId, movie) : MovieLookupResult.notFound(movieId, null);
+        } catch (MovieErrorResponse e) {
+            return e.isNotFound() ? MovieLookupResult.notFound(movieId, e) : MovieLookupResult.failed(movieId, e);
+        }
+    }
+
+    private static MovieLookupResult await(Future<MovieLookupResult> lookup, long deadline) throws InterruptedException {
+        try {
+            return lookup.get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            lookup.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static long remainingNanos(long deadline) {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, deadline - System.nanoTime());
+    }
+
+    private Movie readMovie(MovieOperation operation, MoviesTransport.Request request) {
+        return call(operation, () -> {
+            try (MoviesTransport.Response response = send(operation, request)) {
+                return decodeMovie(response);
+            } catch (IOException e) {
+                throw failure(operation, e);
+            }
+        });
+    }
+
+    private static Movie decodeMovie(MoviesTransport.Response response) throws IOException {
+        byte[] body = StreamUtils.copyToByteArray(response.body());
+        return body.length == 0 ? null : MOVIE_READER.readValue(body);
+    }
+
+    private List<Movie> readMovies(MovieOperation operation, MoviesTransport.Request request) {
+        return call(operation, () -> {
+            try (MoviesTransport.Response response = send(operation, request)) {
+                return MOVIE_READER.<Movie>readValues(response.body()).readAll();
+            } catch (IOException e) {
+                throw failure(operation, e);
+            }
+        });
+    }
+
+    private Iterator<Movie> movieIterator(MovieOperation operation, MoviesTransport.Response response) {
+        try {
+            return new MovieIterator(operation, MOVIE_READER.readValues(response.body()));
+        } catch (IOException e) {
+            throw failure(operation, e);
+        }
+    }
+
+    /**
+     * Performs {@code exchange} on the calling thread if there are no interceptors; otherwise waits for it to go
+     * through them, with every attempt on a thread of its own.
+     */
+    private <T> T call(MovieOperation operation, Supplier<T> exchange) {
+        if (interceptors.isEmpty()) {
+            return exchange.get();
+        }
+        ExecutorService executor = shutDownFanOut ? fanOutExecutors.get() : null;
+        try {
+            return intercept(operation, Mono.fromSupplier(exchange).subscribeOn(scheduler(executor))).block();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private <T> Mono<T> intercept(MovieOperation operation, Mono<T> exchange) {
+        Mono<T> call = exchange.onErrorMap(e -> errors.failure(operation, e));
+        for (int index = interceptors.size() - 1; index >= 0; index--) {
+            call = interceptors.get(index).interceptMono(operation, call);
+        }
+        return call;
+    }
+
+    private <T> Flux<T> intercept(MovieOperation operation, Flux<T> exchange) {
+        Flux<T> call = exchange.onErrorMap(e -> errors.failure(operation, e));
+        for (int index = interceptors.size() - 1; index >= 0; index--) {
+            call = interceptors.get(index).interceptFlux(operation, call);
+        }
+        return call;
+    }
+
+    /**
+     * Never the shared fan-out pool: batch lookups already occupy its threads while they wait for their exchanges.
+     */
+    private static Scheduler scheduler(ExecutorService executor) {
+        return executor != null ? Schedulers.fromExecutorService(executor) : Schedulers.elastic();
+    }
+
+    /**
+     * Returns the response if its status is 2xx; otherwise reads the body and fails with the same
+     * {@link MovieErrorResponse} as the reactive client.
+     */
+    private MoviesTransport.Response send(MovieOperation operation, MoviesTransport.Request request) {
+        return checkStatus(operation, exchange(operation, request));
+    }
+
+    private MoviesTransport.Response exchange(MovieOperation operation, MoviesTransport.Request request) {
+        try {
+            return transport.exchange(request);
+        } catch (IOException e) {
+            throw failure(operation, e);
+        }
+    }
+
+    private MoviesTransport.Response checkStatus(MovieOperation operation, MoviesTransport.Response response) {
+        int statusCode = response.statusCode();
+        if (statusCode / 100 == 2) {
+            return response;
+        }
+        byte[] body;
+        try (MoviesTransport.Response errorResponse = response) {
+            body = StreamUtils.copyToByteArray(errorResponse.body());
+        } catch (IOException e) {
+            body = new byte[0];
+        }
+        throw errors.errorResponse(operation, statusCode, body);
+    }
+
+    private MovieErrorResponse failure(MovieOperation operation, Exception e) {
+        return errors.failure(operation, e);
+    }
+
+    private byte[] encode(MovieOperation operation, Movie movie) {
+        try {
+            return MovieCodecs.objectMapper().writeValueAsBytes(movie);
+        } catch (IOException e) {
+            throw failure(operation, e);
+        }
+    }
+
+    private static void sleep(Duration backoff, MovieErrorResponse cause) {
+        try {
+            Thread.sleep(backoff.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    /**
+     * Threads are started on demand and expire after a minute idle; tasks beyond the thread limit queue up, which
+     * only delays them, since each call already bounds its own concurrency.
+     */
+    private static ExecutorService sharedFanOutExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(SHARED_FAN_OUT_THREADS, SHARED_FAN_OUT_THREADS,
+                1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "movies-fan-out-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static void closeQuietly(MoviesTransport.Response response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Adapts Jackson's checked {@link IOException}s while streaming to {@link MovieErrorResponse}.
+     */
+    private final class MovieIterator implements Iterator<Movie> {
+        private final MovieOperation operation;
+        private final MappingIterator<Movie> movies;
+
+        private MovieIterator(MovieOperation operation, MappingIterator<Movie> movies) {
+            this.operation = operation;
+            this.movies = movies;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return movies.hasNextValue();
+            } catch (IOException e) {
+                throw failure(operation, e);
+            }
+        }
+
+        @Override
+        public Movie next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return movies.nextValue();
+            } catch (IOException e) {
+                throw failure(operation, e);
+            }
+        }
+    }
+}
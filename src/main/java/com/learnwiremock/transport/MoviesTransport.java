@@ -0,0 +1,74 @@
+package com.learnwiremock.transport;
+
+import lombok.Value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Blocking HTTP exchange with the movie service, for running {@code MoviesRestClient} without a reactive stack.
+ * The caller's thread waits for the response, so implementations should park rather than pin it when the caller
+ * is a virtual thread. Implementations are thread-safe; request bodies and response bodies are JSON.
+ */
+public interface MoviesTransport extends Closeable {
+
+    /**
+     * Sends {@code request} and returns once the status is known; the body is read from the returned response,
+     * which must be closed. Fails with an {@link IOException} if no response was received.
+     */
+    Response exchange(Request request) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * A request for {@code uri}, an already encoded path and query relative to the transport's base URL.
+     */
+    @Value
+    class Request {
+        String method;
+        String uri;
+        byte[] body;
+
+        public static Request get(String uri) {
+            return new Request("GET", uri, null);
+        }
+
+        public static Request post(String uri, byte[] body) {
+            return new Request("POST", uri, body);
+        }
+
+        public static Request put(String uri, byte[] body) {
+            return new Request("PUT", uri, body);
+        }
+
+        public static Request delete(String uri) {
+            return new Request("DELETE", uri, null);
+        }
+    }
+
+    final class Response implements Closeable {
+        private final int statusCode;
+        private final InputStream body;
+
+        public Response(int statusCode, InputStream body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        public int statusCode() {
+            return statusCode;
+        }
+
+        public InputStream body() {
+            return body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.learnwiremock.transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.channels.ClosedChannelException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Minimal {@link MoviesTransport} straight on Netty: plain HTTP/1.1 over a fixed pool of keep-alive connections,
+ * with each response aggregated in memory before it is returned. There is no WebClient, codec or reactive pipeline
+ * between the caller and the socket, which makes it the cheapest transport per call for small responses.
+ * <p>
+ * Callers wait on a {@link CompletableFuture}, never on a Netty future, so virtual threads park without pinning.
+ * Must not be called from a Netty event loop.
+ */
+public final class NettyMoviesTransport implements MoviesTransport {
+    private static final AttributeKey<CompletableFuture<FullHttpResponse>> PENDING_RESPONSE =
+            AttributeKey.valueOf(NettyMoviesTransport.class.getName() + ".pendingResponse");
+    private static final int MAX_RESPONSE_BYTES = 64 * 1024 * 1024;
+    private static final int MAX_PENDING_ACQUIRES = 1000;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private final EventLoopGroup eventLoopGroup;
+    private final FixedChannelPool channelPool;
+    private final String hostHeader;
+    private final String basePath;
+    private final Duration requestTimeout;
+
+    public NettyMoviesTransport(String baseUrl) {
+        this(baseUrl, 64, REQUEST_TIMEOUT);
+    }
+
+    public NettyMoviesTransport(String baseUrl, int maxConnections, Duration requestTimeout) {
+        URI uri = URI.create(baseUrl);
+        if (!"http".equals(uri.getScheme())) {
+            throw new IllegalArgumentException("Only http base URLs are supported: " + baseUrl);
+        }
+        int port = uri.getPort() == -1 ? 80 : uri.getPort();
+        this.hostHeader = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + port;
+        this.basePath = uri.getRawPath() == null || uri.getRawPath().equals("/") ? "" : uri.getRawPath();
+        this.requestTimeout = requestTimeout;
+        this.eventLoopGroup = new NioEventLoopGroup(Math.min(4, Runtime.getRuntime().availableProcessors()));
+        Bootstrap bootstrap = new Bootstrap()
+                .group(eventLoopGroup)
+                .channel(NioSocketChannel.class)
+                .remoteAddress(uri.getHost(), port)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) CONNECT_TIMEOUT.toMillis());
+        this.channelPool = new FixedChannelPool(bootstrap, new AbstractChannelPoolHandler() {
+            @Override
+            public void channelCreated(Channel channel) {
+                channel.pipeline()
+                        .addLast(new HttpClientCodec())
+                        .addLast(new HttpContentDecompressor())
+                        .addLast(new HttpObjectAggregator(MAX_RESPONSE_BYTES))
+                        .addLast(new ResponseHandler());
+            }
+        }, ChannelHealthChecker.ACTIVE, FixedChannelPool.AcquireTimeoutAction.FAIL, requestTimeout.toMillis(),
+                maxConnections, MAX_PENDING_ACQUIRES);
+    }
+
+    @Override
+    public Response exchange(Request request) throws IOException {
+        long deadline = System.nanoTime() + requestTimeout.toNanos();
+        Channel channel = await(acquire(), deadline, request);
+        CompletableFuture<FullHttpResponse> pendingResponse = new CompletableFuture<>();
+        channel.attr(PENDING_RESPONSE).set(pendingResponse);
+        channel.writeAndFlush(toHttpRequest(request)).addListener(written -> {
+            if (!written.isSuccess()) {
+                pendingResponse.completeExceptionally(written.cause());
+            }
+        });
+
+        FullHttpResponse response;
+        try {
+            response = await(pendingResponse, deadline, request);
+        } catch (IOException e) {
+            channel.close();
+            channelPool.release(channel);
+            throw e;
+        }
+        try {
+            byte[] body = ByteBufUtil.getBytes(response.content());
+            if (!HttpUtil.isKeepAlive(response)) {
+                channel.close();
+            }
+            return new Response(response.status().code(), new ByteArrayInputStream(body));
+        } finally {
+            response.release();
+            channel.attr(PENDING_RESPONSE).set(null);
+            channelPool.release(channel);
+        }
+    }
+
+    @Override
+    public void close() {
+        channelPool.close();
+        eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+
+    private FullHttpRequest toHttpRequest(Request request) {
+        byte[] body = request.getBody() != null ? request.getBody() : new byte[0];
+        FullHttpRequest httpRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1,
+                HttpMethod.valueOf(request.getMethod()), basePath + request.getUri(), Unpooled.wrappedBuffer(body));
+        httpRequest.headers()
+                .set(HttpHeaderNames.HOST, hostHeader)
+                .set(HttpHeaderNames.ACCEPT, HttpHeaderValues.APPLICATION_JSON)
+                .set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP)
+                .set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE)
+                .setInt(HttpHeaderNames.CONTENT_LENGTH, body.length);
+        if (request.getBody() != null) {
+            httpRequest.headers().set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON);
+        }
+        return httpRequest;
+    }
+
+    /**
+     * A channel acquired after the caller gave up waiting goes straight back to the pool.
+     */
+    private CompletableFuture<Channel> acquire() {
+        CompletableFuture<Channel> acquired = new CompletableFuture<>();
+        channelPool.acquire().addListener((Future<Channel> done) -> {
+            if (!done.isSuccess()) {
+                acquired.completeExceptionally(done.cause());
+            } else if (!acquired.complete(done.getNow())) {
+                channelPool.release(done.getNow());
+            }
+        });
+        return acquired;
+    }
+
+    private static <T> T await(CompletableFuture<T> future, long deadline, Request request) throws IOException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new SocketTimeoutException("No response for " + request.getMethod() + " " + request.getUri());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted waiting for " + request.getUri());
+            interrupted.initCause(e);
+            throw interrupted;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            ConnectException failure = new ConnectException(cause.getMessage());
+            failure.initCause(cause);
+            throw failure;
+        }
+    }
+
+    private static final class ResponseHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext context, FullHttpResponse response) {
+            CompletableFuture<FullHttpResponse> pendingResponse = context.channel().attr(PENDING_RESPONSE).get();
+            if (pendingResponse == null || !pendingResponse.complete(response.retain())) {
+                response.release();
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext context) {
+            fail(context, new ClosedChannelException());
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext context, Throwable cause) {
+            fail(context, cause);
+            context.close();
+        }
+
+        private static void fail(ChannelHandlerContext context, Throwable cause) {
+            CompletableFuture<FullHttpResponse> pendingResponse = context.channel().attr(PENDING_RESPONSE).get();
+            if (pendingResponse != null) {
+                pendingResponse.completeExceptionally(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.learnwiremock.transport;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Exceptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * {@link MoviesTransport} on a {@link WebClient}, e.g. one from {@code MoviesWebClientFactory}, for comparing the
+ * transports behind the same blocking client. The response body is buffered before the caller is released.
+ */
+public final class WebClientMoviesTransport implements MoviesTransport {
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final WebClient webClient;
+
+    public WebClientMoviesTransport(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public Response exchange(Request request) throws IOException {
+        WebClient.RequestBodySpec spec = webClient.method(HttpMethod.valueOf(request.getMethod()))
+                .uri(base -> URI.create(base.build() + request.getUri()))
+                .accept(MediaType.APPLICATION_JSON);
+        if (request.getBody() != null) {
+            spec.contentType(MediaType.APPLICATION_JSON).syncBody(request.getBody());
+        }
+        try {
+            return spec.exchange()
+                    .flatMap(response -> response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(NO_BODY)
+                            .map(body -> new Response(response.rawStatusCode(), new ByteArrayInputStream(body))))
+                    .block();
+        } catch (RuntimeException e) {
+            Throwable cause = Exceptions.unwrap(e);
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.learnwiremock.catalog;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.learnwiremock.codec.MovieCodecs;
+import com.learnwiremock.dto.Movie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovieCatalogIndexTest {
+
+    MovieCatalogIndex movieCatalogIndex;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        List<Movie> movies = MovieCodecs.objectMapper().readValue(new File("src/test/resources/__files/all-movies.json"),
+                new TypeReference<List<Movie>>() {
+                });
+        movieCatalogIndex = MovieCatalogIndex.of(MovieCatalog.of(movies));
+    }
+
+    @Test
+    void shouldFindMovieById() {
+        //when
+        Movie movie = movieCatalogIndex.findMovieById(9).get();
+
+        //then
+        assertEquals("The Imitation Game", movie.getName());
+        assertFalse(movieCatalogIndex.findMovieById(100).isPresent());
+    }
+
+    @Test
+    void shouldFindMoviesByYearInCatalogOrder() {
+        //when
+        List<Movie> movies = movieCatalogIndex.moviesByYear(2012);
+
+        //then
+        assertEquals(Arrays.asList("The Dark Knight Rises", "The Avengers"), names(movies));
+        assertTrue(movieCatalogIndex.moviesByYear(2013).isEmpty());
+        assertTrue(movieCatalogIndex.moviesByYear(Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void shouldMatchAnyPartOfTheNameIgnoringCase() {
+        //then
+        assertEquals(Arrays.asList("The Avengers", "Avengers: Age of Ultron", "Avengers: Infinity War", "Avengers: End Game"),
+                names(movieCatalogIndex.moviesByName("avengers")));
+        assertEquals(Arrays.asList("Dark Knight", "The Dark Knight Rises"), names(movieCatalogIndex.moviesByName("Dark Kn")));
+        assertEquals(Arrays.asList("Avengers: End Game", "The Imitation Game"), names(movieCatalogIndex.moviesByName("GAME")));
+        assertEquals(6, movieCatalogIndex.moviesByName("e ").size());
+        assertTrue(movieCatalogIndex.moviesByName("Superman").isEmpty());
+    }
+
+    @Test
+    void shouldHandOutFreshMovies() {
+        //when
+        movieCatalogIndex.findMovieById(9).get().setName("Changed");
+
+        //then
+        assertEquals("The Imitation Game", movieCatalogIndex.findMovieById(9).get().getName());
+    }
+
+    private static List<String> names(List<Movie> movies) {
+        return movies.stream().map(Movie::getName).collect(Collectors.toList());
+    }
+}
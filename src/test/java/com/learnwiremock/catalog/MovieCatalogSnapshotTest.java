@@ -0,0 +1,112 @@
+package com.learnwiremock.catalog;
+
+import com.learnwiremock.dto.Movie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovieCatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackTheCatalog() throws IOException {
+        //given
+        List<Movie> movies = Arrays.asList(
+                new Movie(1L, "Batman Begins", 2005, "Christian Bale, Michael Caine", LocalDate.of(2005, 6, 15)),
+                new Movie(2L, "Am\u00e9lie", 2001, "Audrey Tautou", LocalDate.of(2001, 4, 25)),
+                new Movie(3L, "Batman Begins", null, null, null),
+                new Movie(null, null, 2019, "Christian Bale, Michael Caine", null));
+        Path snapshot = directory.resolve("movies.snapshot");
+
+        //when
+        MovieCatalogSnapshot.write(MovieCatalog.of(movies), snapshot);
+        MovieCatalog catalog = MovieCatalogSnapshot.read(snapshot);
+
+        //then
+        assertEquals(movies, catalog.asList());
+        assertEquals(2, catalog.distinctNames());
+        assertEquals(2, catalog.distinctCasts());
+        assertEquals(1, Files.list(directory).count());
+    }
+
+    @Test
+    void shouldReplaceAnExistingSnapshot() throws IOException {
+        //given
+        Path snapshot = directory.resolve("movies.snapshot");
+        MovieCatalogSnapshot.write(MovieCatalog.of(Arrays.asList(new Movie(1L, "Batman Begins", 2005, null, null))), snapshot);
+
+        //when
+        MovieCatalogSnapshot.write(MovieCatalog.of(Arrays.asList()), snapshot);
+
+        //then
+        assertEquals(0, MovieCatalogSnapshot.read(snapshot).size());
+    }
+
+    @Test
+    void shouldRejectCorruptedSnapshots() throws IOException {
+        //given
+        Path snapshot = directory.resolve("movies.snapshot");
+        MovieCatalogSnapshot.write(MovieCatalog.of(Arrays.asList(new Movie(1L, "Batman Begins", 2005, null, null))), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshot, bytes);
+
+        //when
+        IOException exception = assertThrows(IOException.class, () -> MovieCatalogSnapshot.read(snapshot));
+
+        //then
+        assertTrue(exception.getMessage().contains("checksum"));
+    }
+
+    @Test
+    void shouldRejectCodesOutsideTheDictionaries() throws IOException {
+        //given
+        Path snapshot = directory.resolve("movies.snapshot");
+        MovieCatalogSnapshot.write(MovieCatalog.of(Arrays.asList(new Movie(1L, "Batman Begins", 2005, null, null))), snapshot);
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+        int nameCodeAt = 5 * Integer.BYTES + Long.BYTES + 2 * Integer.BYTES;
+        bytes.putInt(nameCodeAt, 5);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.array(), 0, bytes.capacity() - Integer.BYTES);
+        bytes.putInt(bytes.capacity() - Integer.BYTES, (int) crc.getValue());
+        Files.write(snapshot, bytes.array());
+
+        //when
+        IOException exception = assertThrows(IOException.class, () -> MovieCatalogSnapshot.read(snapshot));
+
+        //then
+        assertTrue(exception.getMessage().contains("name code 5"));
+    }
+
+    @Test
+    void shouldRejectOtherFormatVersionsAndTruncatedFiles() throws IOException {
+        //given
+        Path snapshot = directory.resolve("movies.snapshot");
+        MovieCatalogSnapshot.write(MovieCatalog.of(Arrays.asList(new Movie(1L, "Batman Begins", 2005, null, null))), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Path newerVersion = directory.resolve("newer.snapshot");
+        Files.write(newerVersion, ByteBuffer.wrap(bytes.clone()).putInt(4, MovieCatalogSnapshot.FORMAT_VERSION + 1).array());
+        Path truncated = directory.resolve("truncated.snapshot");
+        Files.write(truncated, Arrays.copyOf(bytes, 6));
+
+        //when
+        IOException versionMismatch = assertThrows(IOException.class, () -> MovieCatalogSnapshot.read(newerVersion));
+        IOException notASnapshot = assertThrows(IOException.class, () -> MovieCatalogSnapshot.read(truncated));
+
+        //then
+        assertTrue(versionMismatch.getMessage().contains("version"));
+        assertTrue(notASnapshot.getMessage().contains("Not a movie catalog snapshot"));
+    }
+}
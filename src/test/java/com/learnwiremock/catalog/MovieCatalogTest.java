@@ -0,0 +1,82 @@
+package com.learnwiremock.catalog;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.learnwiremock.codec.MovieCodecs;
+import com.learnwiremock.dto.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovieCatalogTest {
+
+    @Test
+    void shouldHandOutEqualMovies() throws IOException {
+        //given
+        List<Movie> movies = MovieCodecs.objectMapper().readValue(new File("src/test/resources/__files/all-movies.json"),
+                new TypeReference<List<Movie>>() {
+                });
+
+        //when
+        MovieCatalog catalog = MovieCatalog.of(movies);
+
+        //then
+        assertEquals(movies.size(), catalog.size());
+        assertEquals(movies, catalog.asList());
+        assertEquals(movies.get(3), catalog.get(3));
+    }
+
+    @Test
+    void shouldStoreRepeatedStringsOnce() {
+        //given
+        MovieCatalog.Builder builder = MovieCatalog.builder();
+
+        //when
+        for (long movieId = 1; movieId <= 1000; movieId++) {
+            builder.add(new Movie(movieId, "Batman Begins", 2005, movieId % 2 == 0 ? "Christian Bale" : "Michael Caine",
+                    LocalDate.of(2005, 6, 15)));
+        }
+        MovieCatalog catalog = builder.build();
+
+        //then
+        assertEquals(1000, catalog.size());
+        assertEquals(1, catalog.distinctNames());
+        assertEquals(2, catalog.distinctCasts());
+        assertSame(catalog.cast(1), catalog.cast(3));
+        assertEquals(new Movie(1000L, "Batman Begins", 2005, "Christian Bale", LocalDate.of(2005, 6, 15)), catalog.get(999));
+    }
+
+    @Test
+    void shouldKeepMissingValuesAsNull() {
+        //given
+        Movie incomplete = new Movie(null, null, null, null, null);
+
+        //when
+        MovieCatalog catalog = MovieCatalog.of(Arrays.asList(incomplete, new Movie(7L, "Toys", 2019, null, null)));
+
+        //then
+        assertEquals(incomplete, catalog.get(0));
+        assertFalse(catalog.hasMovieId(0));
+        assertFalse(catalog.hasYear(0));
+        assertEquals(7L, catalog.rawMovieId(1));
+        assertEquals(2019, catalog.rawYear(1));
+    }
+
+    @Test
+    void shouldNotBeChangedThroughHandedOutMovies() {
+        //given
+        MovieCatalog catalog = MovieCatalog.of(new ArrayList<>(Arrays.asList(new Movie(7L, "Toys", 2019, null, null))));
+
+        //when
+        catalog.get(0).setName("Changed");
+
+        //then
+        assertEquals("Toys", catalog.name(0));
+    }
+}
@@ -0,0 +1,94 @@
+package com.learnwiremock.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnwiremock.dto.Movie;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovieCodecsTest {
+
+    private static final TypeReference<List<Movie>> MOVIE_LIST = new TypeReference<List<Movie>>() {
+    };
+
+    @Test
+    void shouldDecodeLikeTheDefaultObjectMapper() throws IOException {
+        //given
+        byte[] json = Files.readAllBytes(new File("src/test/resources/__files/all-movies.json").toPath());
+        ObjectMapper defaultObjectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        //when
+        List<Movie> movies = MovieCodecs.objectMapper().readValue(json, MOVIE_LIST);
+
+        //then
+        assertEquals(10, movies.size());
+        assertEquals(defaultObjectMapper.readValue(json, MOVIE_LIST), movies);
+    }
+
+    @Test
+    void shouldShareReleaseDatesBetweenMovies() throws IOException {
+        //given
+        String json = "[{\"movie_id\":1,\"release_date\":\"2012-05-04\"},{\"movie_id\":2,\"release_date\":\"2012-05-04\"}]";
+
+        //when
+        List<Movie> movies = MovieCodecs.objectMapper().readValue(json, MOVIE_LIST);
+
+        //then
+        assertEquals(LocalDate.of(2012, 5, 4), movies.get(0).getRelease_date());
+        assertSame(movies.get(0).getRelease_date(), movies.get(1).getRelease_date());
+    }
+
+    @Test
+    void shouldHandleNullsAndUnknownProperties() throws IOException {
+        //given
+        String json = "{\"movie_id\":null,\"name\":\"Toys\",\"rating\":{\"imdb\":7.1},\"year\":\"2019\",\"release_date\":null}";
+
+        //when
+        Movie movie = MovieCodecs.movieReader().readValue(json);
+
+        //then
+        assertEquals(new Movie(null, "Toys", 2019, null, null), movie);
+    }
+
+    @Test
+    void shouldDecodeMoviesSplitAcrossDataBuffers() {
+        //given
+        String json = "[{\"movie_id\":1,\"name\":\"Batman Begins\",\"year\":2005,\"cast\":\"Christian Bale\",\"release_date\":\"2005-06-15\"},"
+                + "{\"movie_id\":2,\"name\":\"Dark Knight\",\"year\":2008,\"cast\":\"Heath Ledger\",\"release_date\":\"2008-07-18\"}]";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += 7) {
+            chunks.add(new DefaultDataBufferFactory().wrap(
+                    Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + 7))));
+        }
+
+        //when
+        List<Object> movies = new Jackson2JsonDecoder(MovieCodecs.objectMapper())
+                .decode(Flux.fromIterable(chunks), ResolvableType.forClass(Movie.class), MediaType.APPLICATION_JSON,
+                        Collections.emptyMap())
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(2, movies.size());
+        assertEquals(new Movie(2L, "Dark Knight", 2008, "Heath Ledger", LocalDate.of(2008, 7, 18)), movies.get(1));
+    }
+}
@@ -0,0 +1,317 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.exception.MovieErrorResponse;
+import com.learnwiremock.exception.MovieServiceBulkheadFullException;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class AdaptiveConcurrencyMovieCallInterceptorTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void shouldQueueCallsBeyondTheLimitAndShedThemOnceTheQueueIsFull() {
+        //given
+        HistogramMoviesClientMetrics metrics = new HistogramMoviesClientMetrics();
+        AdaptiveConcurrencyMovieCallInterceptor interceptor = new AdaptiveConcurrencyMovieCallInterceptor(
+                AdaptiveConcurrencySettings.builder()
+                        .initialLimit(1)
+                        .maxLimit(1)
+                        .maxQueuedCalls(1)
+                        .maxQueueWait(Duration.ofSeconds(2))
+                        .build(), metrics);
+        ReactiveMoviesRestClient reactiveMoviesRestClient =
+                new ReactiveMoviesRestClient(webClient(), false, Collections.singletonList(interceptor));
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(200)
+                        .withBodyFile("movie-by-id-template.json")));
+
+        //when
+        List<Object> results = Flux.range(0, 3)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMovieById(9)
+                        .cast(Object.class)
+                        .onErrorResume(Mono::just))
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(2, results.stream().filter(Movie.class::isInstance).count());
+        assertEquals(1, results.stream().filter(MovieServiceBulkheadFullException.class::isInstance).count());
+        assertEquals(1, metrics.shed(MovieOperation.RETRIEVE_MOVIE_BY_ID));
+        assertEquals(1, metrics.concurrencyLimit());
+        verify(2, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldShedQueuedCallsAfterTheBoundedWait() {
+        //given
+        AdaptiveConcurrencyMovieCallInterceptor interceptor = new AdaptiveConcurrencyMovieCallInterceptor(
+                AdaptiveConcurrencySettings.builder()
+                        .initialLimit(1)
+                        .maxQueueWait(Duration.ofMillis(50))
+                        .build(), MoviesClientMetrics.NOOP, clock::get);
+        MonoProcessor<String> slowCall = MonoProcessor.create();
+        interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, slowCall).subscribe();
+
+        //when
+        Mono<String> queued = interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, Mono.just("queued"));
+
+        //then
+        StepVerifier.create(queued)
+                .expectError(MovieServiceBulkheadFullException.class)
+                .verify(Duration.ofSeconds(1));
+        slowCall.onNext("done");
+        assertEquals(0, interceptor.inFlightCalls());
+    }
+
+    @Test
+    void shouldHandTheReleasedSlotToTheQueuedCall() {
+        //given
+        AdaptiveConcurrencyMovieCallInterceptor interceptor = new AdaptiveConcurrencyMovieCallInterceptor(
+                AdaptiveConcurrencySettings.builder()
+                        .initialLimit(1)
+                        .maxQueueWait(Duration.ofSeconds(5))
+                        .build(), MoviesClientMetrics.NOOP, clock::get);
+        MonoProcessor<String> slowCall = MonoProcessor.create();
+        interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, slowCall).subscribe();
+        AtomicReference<String> queued = new AtomicReference<>();
+        interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, Mono.just("queued")).subscribe(queued::set);
+
+        //when
+        assertNull(queued.get());
+        slowCall.onNext("done");
+
+        //then
+        assertEquals("queued", queued.get());
+        assertEquals(0, interceptor.inFlightCalls());
+    }
+
+    @Test
+    void shouldLowerTheLimitWhenLatencyExceedsTheBaseline() {
+        //given
+        HistogramMoviesClientMetrics metrics = new HistogramMoviesClientMetrics();
+        AdaptiveConcurrencyMovieCallInterceptor interceptor = new AdaptiveConcurrencyMovieCallInterceptor(
+                AdaptiveConcurrencySettings.builder()
+                        .initialLimit(10)
+                        .build(), metrics, clock::get);
+        interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, callTaking(10)).block();
+
+        //when
+        interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, callTaking(15)).block();
+        int limitWithinTolerance = interceptor.limit();
+        interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, callTaking(50)).block();
+
+        //then
+        assertEquals(10, limitWithinTolerance);
+        assertEquals(9, interceptor.limit());
+        assertEquals(9, metrics.concurrencyLimit());
+    }
+
+    @Test
+    void shouldLowerTheLimitOnceForCallsOverloadedTogether() {
+        //given
+        AdaptiveConcurrencyMovieCallInterceptor interceptor = new AdaptiveConcurrencyMovieCallInterceptor(
+                AdaptiveConcurrencySettings.builder()
+                        .initialLimit(10)
+                        .build(), MoviesClientMetrics.NOOP, clock::get);
+        MonoProcessor<String> first = MonoProcessor.create();
+        MonoProcessor<String> second = MonoProcessor.create();
+        interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, first).onErrorResume(e -> Mono.empty()).subscribe();
+        interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, second).onErrorResume(e -> Mono.empty()).subscribe();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+
+        //when
+        first.onError(unavailable());
+        second.onError(unavailable());
+
+        //then
+        assertEquals(9, interceptor.limit());
+        assertEquals(0, interceptor.inFlightCalls());
+    }
+
+    @Test
+    void shouldRaiseTheLimitOnlyWhileItIsInUse() {
+        //given
+        HistogramMoviesClientMetrics metrics = new HistogramMoviesClientMetrics();
+        AdaptiveConcurrencyMovieCallInterceptor interceptor = new AdaptiveConcurrencyMovieCallInterceptor(
+                AdaptiveConcurrencySettings.builder()
+                        .initialLimit(1)
+                        .build(), metrics, clock::get);
+
+        //when
+        interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, callTaking(10)).block();
+        int limitAfterSaturatedCall = interceptor.limit();
+        for (int i = 0; i < 5; i++) {
+            interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, callTaking(10)).block();
+        }
+
+        //then
+        assertEquals(2, limitAfterSaturatedCall);
+        assertEquals(2, interceptor.limit());
+        assertEquals(2, metrics.concurrencyLimit());
+        assertEquals(0, interceptor.inFlightCalls());
+    }
+
+    @Test
+    void shouldLowerTheLimitWhenCallsTimeOutInTheResilienceInterceptor() {
+        //given
+        AdaptiveConcurrencyMovieCallInterceptor interceptor = new AdaptiveConcurrencyMovieCallInterceptor(
+                AdaptiveConcurrencySettings.builder()
+                        .initialLimit(10)
+                        .latencyTolerance(10)
+                        .build());
+        ResilienceMovieCallInterceptor resilience = new ResilienceMovieCallInterceptor(MovieResiliencePolicy.builder()
+                .defaultTimeout(Duration.ofMillis(500))
+                .maxRetries(0)
+                .build());
+        ReactiveMoviesRestClient reactiveMoviesRestClient =
+                new ReactiveMoviesRestClient(webClient(), false, Arrays.asList(resilience, interceptor));
+        stubFor(get(urlEqualTo("/movieservice/v1/movie/1"))
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie-by-id-template.json")));
+        stubFor(get(urlEqualTo("/movieservice/v1/movie/9"))
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(2000)
+                        .withBodyFile("movie-by-id-template.json")));
+        new ReactiveMoviesRestClient(webClient(), false).retrieveMovieById(1).block();
+        for (int i = 0; i < 3; i++) {
+            reactiveMoviesRestClient.retrieveMovieById(1).block();
+        }
+        int limitBeforeTimeout = interceptor.limit();
+
+        //when
+        StepVerifier.create(reactiveMoviesRestClient.retrieveMovieById(9))
+                .expectError(MovieErrorResponse.class)
+                .verify(Duration.ofSeconds(5));
+
+        //then
+        assertTrue(interceptor.limit() < limitBeforeTimeout);
+        assertEquals(0, interceptor.inFlightCalls());
+    }
+
+    @Test
+    void shouldNeitherRetryNorCountShedCallsInTheResilienceInterceptor() {
+        //given
+        HistogramMoviesClientMetrics metrics = new HistogramMoviesClientMetrics();
+        AdaptiveConcurrencyMovieCallInterceptor interceptor = new AdaptiveConcurrencyMovieCallInterceptor(
+                AdaptiveConcurrencySettings.builder()
+                        .initialLimit(1)
+                        .maxLimit(1)
+                        .maxQueuedCalls(0)
+                        .build(), metrics);
+        ResilienceMovieCallInterceptor resilience = new ResilienceMovieCallInterceptor(MovieResiliencePolicy.builder()
+                .maxRetries(3)
+                .firstBackoff(Duration.ofMillis(10))
+                .circuitBreakerWindow(2)
+                .circuitBreakerFailureRate(0.5)
+                .build());
+        ReactiveMoviesRestClient reactiveMoviesRestClient =
+                new ReactiveMoviesRestClient(webClient(), false, Arrays.asList(resilience, interceptor));
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(300)
+                        .withBodyFile("movie-by-id-template.json")));
+
+        //when
+        List<Object> results = Flux.range(0, 3)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMovieById(9)
+                        .cast(Object.class)
+                        .onErrorResume(Mono::just))
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(1, results.stream().filter(Movie.class::isInstance).count());
+        assertEquals(2, results.stream().filter(MovieServiceBulkheadFullException.class::isInstance).count());
+        assertEquals(2, metrics.shed(MovieOperation.RETRIEVE_MOVIE_BY_ID));
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.circuitState());
+        assertEquals(9L, reactiveMoviesRestClient.retrieveMovieById(9).block().getMovie_id());
+    }
+
+    @Test
+    void shouldNotHoldASlotForACallCancelledBeforeItIsGranted() {
+        //given
+        HistogramMoviesClientMetrics metrics = new HistogramMoviesClientMetrics();
+        AdaptiveConcurrencyMovieCallInterceptor interceptor = new AdaptiveConcurrencyMovieCallInterceptor(
+                AdaptiveConcurrencySettings.builder()
+                        .initialLimit(1)
+                        .build(), metrics, clock::get);
+
+        //when
+        interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, Mono.just("movie"))
+                .subscribe(new BaseSubscriber<String>() {
+                    @Override
+                    protected void hookOnSubscribe(Subscription subscription) {
+                        cancel();
+                    }
+                });
+
+        //then
+        assertEquals(0, interceptor.inFlightCalls());
+        assertEquals(0, metrics.shed(MovieOperation.RETRIEVE_MOVIE_BY_ID));
+        assertEquals("movie", interceptor.interceptMono(MovieOperation.RETRIEVE_MOVIE_BY_ID, Mono.just("movie")).block());
+    }
+
+    private Mono<String> callTaking(long millis) {
+        return Mono.fromCallable(() -> {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+            return "movie";
+        });
+    }
+
+    private static MovieErrorResponse unavailable() {
+        return new MovieErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(), new byte[0], true);
+    }
+
+    private WebClient webClient() {
+        return WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+    }
+}
@@ -0,0 +1,202 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.exception.MovieErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class CachingMoviesRestClientTest {
+
+    CachingMoviesRestClient cachingMoviesRestClient;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @BeforeEach
+    void setUp() {
+        String baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        cachingMoviesRestClient = new CachingMoviesRestClient(WebClient.create(baseUrl), MovieCacheSettings.defaults());
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        //given
+        stubMovieById();
+
+        //when
+        Movie first = cachingMoviesRestClient.retrieveMovieById(9);
+        Movie second = cachingMoviesRestClient.retrieveMovieById(9);
+
+        //then
+        assertSame(first, second);
+        assertEquals(1, cachingMoviesRestClient.movieByIdCacheStats().hitCount());
+        assertEquals(1, cachingMoviesRestClient.movieByIdCacheStats().missCount());
+        verify(1, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        //given
+        String baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        cachingMoviesRestClient = new CachingMoviesRestClient(new ReactiveMoviesRestClient(WebClient.create(baseUrl), false),
+                MovieCacheSettings.defaults());
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(300)
+                        .withBodyFile("movie-by-id-template.json")));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        //when
+        List<Future<Movie>> movies = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            movies.add(callers.submit(() -> cachingMoviesRestClient.retrieveMovieById(9)));
+        }
+
+        //then
+        for (Future<Movie> movie : movies) {
+            assertEquals(9L, movie.get(5, TimeUnit.SECONDS).getMovie_id());
+        }
+        callers.shutdown();
+        verify(1, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldCacheNotFound() {
+        //given
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("movie-by-id-not-found.json")));
+
+        //when
+        MovieErrorResponse first = assertThrows(MovieErrorResponse.class, () -> cachingMoviesRestClient.retrieveMovieById(100));
+        MovieErrorResponse second = assertThrows(MovieErrorResponse.class, () -> cachingMoviesRestClient.retrieveMovieById(100));
+
+        //then
+        assertEquals("Not Found", second.getMessage());
+        assertNotSame(first, second);
+        assertEquals(first.getResponseBodyAsString(), second.getResponseBodyAsString());
+        assertFalse(cachingMoviesRestClient.findMovieById(100).isPresent());
+        verify(1, getRequestedFor(urlEqualTo("/movieservice/v1/movie/100")));
+    }
+
+    @Test
+    void shouldNotCacheServerErrors() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+
+        //when
+        assertThrows(MovieErrorResponse.class, () -> cachingMoviesRestClient.retrieveMoviesByYear(2012));
+        assertThrows(MovieErrorResponse.class, () -> cachingMoviesRestClient.retrieveMoviesByYear(2012));
+
+        //then
+        verify(2, getRequestedFor(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1)));
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() throws InterruptedException {
+        //given
+        String baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        MovieCacheSettings settings = MovieCacheSettings.builder().movieByIdTtl(Duration.ofMillis(50)).build();
+        cachingMoviesRestClient = new CachingMoviesRestClient(WebClient.create(baseUrl), settings);
+        stubMovieById();
+
+        //when
+        cachingMoviesRestClient.retrieveMovieById(9);
+        Thread.sleep(100);
+        cachingMoviesRestClient.retrieveMovieById(9);
+
+        //then
+        verify(2, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldInvalidateYearLookupWhenMovieIsEdited() {
+        //given
+        Integer year = 2008;
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1))
+                .withQueryParam("year", equalTo(year.toString()))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movies-by-year-template.json")));
+        stubFor(put(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("edited-movie.json")));
+        List<Movie> cached = cachingMoviesRestClient.retrieveMoviesByYear(year);
+
+        //when
+        cachingMoviesRestClient.editMovie(Math.toIntExact(cached.get(0).getMovie_id()), new Movie(null, null, null, "Hugh Laurie", null));
+        cachingMoviesRestClient.retrieveMoviesByYear(year);
+
+        //then
+        verify(2, getRequestedFor(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1)));
+    }
+
+    @Test
+    void shouldBoundCacheByNumberOfMovies() throws InterruptedException {
+        //given
+        String baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        MovieCacheSettings settings = MovieCacheSettings.builder().maximumMoviesPerCache(2).build();
+        cachingMoviesRestClient = new CachingMoviesRestClient(WebClient.create(baseUrl), settings);
+        stubMovieById();
+
+        //when
+        for (int movieId = 1; movieId <= 5; movieId++) {
+            cachingMoviesRestClient.retrieveMovieById(movieId);
+        }
+
+        //then
+        long deadline = System.currentTimeMillis() + 1000;
+        while (cachingMoviesRestClient.movieByIdCacheStats().evictionCount() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, cachingMoviesRestClient.movieByIdCacheStats().evictionCount());
+    }
+
+    private void stubMovieById() {
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie-by-id-template.json")));
+    }
+}
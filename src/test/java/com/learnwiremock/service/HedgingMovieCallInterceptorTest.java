@@ -0,0 +1,181 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.exception.MovieErrorResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class HedgingMovieCallInterceptorTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    private final HistogramMoviesClientMetrics metrics = new HistogramMoviesClientMetrics();
+
+    @Test
+    void shouldAnswerSlowLookupsFromTheHedge() {
+        //given
+        ReactiveMoviesRestClient reactiveMoviesRestClient = reactiveMoviesRestClient(HedgingSettings.defaults());
+        stubAlternatingSlowAndFast("/movieservice/v1/movie/9", "movie-by-id-template.json");
+
+        //when
+        long start = System.nanoTime();
+        Movie movie = reactiveMoviesRestClient.retrieveMovieById(9).block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        //then
+        assertEquals(9L, movie.getMovie_id());
+        assertTrue(elapsed.toMillis() < 1500, "took " + elapsed);
+        assertEquals(1, metrics.hedges(MovieOperation.RETRIEVE_MOVIE_BY_ID));
+        verify(2, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldAnswerSlowListLookupsFromTheHedge() {
+        //given
+        ReactiveMoviesRestClient reactiveMoviesRestClient = reactiveMoviesRestClient(HedgingSettings.defaults());
+        stubAlternatingSlowAndFast(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1,
+                "movies-by-year-template.json");
+
+        //when
+        long start = System.nanoTime();
+        List<Movie> movies = reactiveMoviesRestClient.retrieveMoviesByYear(2012).collectList().block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        //then
+        assertFalse(movies.isEmpty());
+        assertTrue(elapsed.toMillis() < 1500, "took " + elapsed);
+        assertEquals(1, metrics.hedges(MovieOperation.RETRIEVE_MOVIES_BY_YEAR));
+    }
+
+    @Test
+    void shouldStopHedgingOnceTheBudgetIsSpent() {
+        //given
+        ReactiveMoviesRestClient reactiveMoviesRestClient = reactiveMoviesRestClient(HedgingSettings.builder()
+                .budgetRatio(0)
+                .maxBurst(1)
+                .build());
+        stubAlternatingSlowAndFast("/movieservice/v1/movie/9", "movie-by-id-template.json");
+
+        //when
+        Duration hedged = timed(() -> reactiveMoviesRestClient.retrieveMovieById(9).block());
+        Duration unhedged = timed(() -> reactiveMoviesRestClient.retrieveMovieById(9).block());
+
+        //then
+        assertTrue(hedged.toMillis() < 1500, "took " + hedged);
+        assertTrue(unhedged.toMillis() >= 2000, "took " + unhedged);
+        assertEquals(1, metrics.hedges(MovieOperation.RETRIEVE_MOVIE_BY_ID));
+        verify(3, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldHedgeAfterTheObservedPercentileOnceWarmedUp() {
+        //given
+        ReactiveMoviesRestClient reactiveMoviesRestClient = reactiveMoviesRestClient(HedgingSettings.builder()
+                .initialDelay(Duration.ofSeconds(5))
+                .minSamples(5)
+                .percentile(50)
+                .build());
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/9"))
+                .willReturn(response("movie-by-id-template.json").withFixedDelay(300)));
+        for (int i = 0; i < 5; i++) {
+            reactiveMoviesRestClient.retrieveMovieById(9).block();
+        }
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/9")).inScenario("stalled instance")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willSetStateTo("warm")
+                .willReturn(response("movie-by-id-template.json").withFixedDelay(3000)));
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/9")).inScenario("stalled instance")
+                .whenScenarioStateIs("warm")
+                .willReturn(response("movie-by-id-template.json").withFixedDelay(300)));
+
+        //when
+        Duration elapsed = timed(() -> reactiveMoviesRestClient.retrieveMovieById(9).block());
+
+        //then
+        assertTrue(elapsed.toMillis() >= 550 && elapsed.toMillis() < 1500, "took " + elapsed);
+        assertEquals(1, metrics.hedges(MovieOperation.RETRIEVE_MOVIE_BY_ID));
+        verify(7, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldNotHedgeLookupsThatFailBeforeTheDelay() {
+        //given
+        ReactiveMoviesRestClient reactiveMoviesRestClient = reactiveMoviesRestClient(HedgingSettings.builder()
+                .initialDelay(Duration.ofSeconds(1))
+                .build());
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/100")).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withBodyFile("movie-by-id-not-found.json")));
+
+        //when
+        assertThrows(MovieErrorResponse.class, () -> reactiveMoviesRestClient.retrieveMovieById(100).block());
+
+        //then
+        assertEquals(0, metrics.hedges(MovieOperation.RETRIEVE_MOVIE_BY_ID));
+        verify(1, getRequestedFor(urlEqualTo("/movieservice/v1/movie/100")));
+    }
+
+    /**
+     * Every other request is answered after two seconds, as if by a stalled backend instance.
+     */
+    private void stubAlternatingSlowAndFast(String path, String bodyFile) {
+        stubFor(get(urlPathEqualTo(path)).inScenario("stalled instance")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willSetStateTo("fast")
+                .willReturn(response(bodyFile).withFixedDelay(2000)));
+        stubFor(get(urlPathEqualTo(path)).inScenario("stalled instance")
+                .whenScenarioStateIs("fast")
+                .willSetStateTo(Scenario.STARTED)
+                .willReturn(response(bodyFile).withUniformRandomDelay(10, 50)));
+    }
+
+    private static ResponseDefinitionBuilder response(String bodyFile) {
+        return WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile(bodyFile);
+    }
+
+    private static Duration timed(Supplier<?> call) {
+        long start = System.nanoTime();
+        call.get();
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private ReactiveMoviesRestClient reactiveMoviesRestClient(HedgingSettings settings) {
+        return new ReactiveMoviesRestClient(WebClient.create(String.format("http://localhost:%s", wireMockServer.port())),
+                false, Collections.singletonList(new HedgingMovieCallInterceptor(settings, metrics)));
+    }
+}
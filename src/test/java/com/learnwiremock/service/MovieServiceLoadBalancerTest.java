@@ -0,0 +1,254 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.Movie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MovieServiceLoadBalancerTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    private WireMockServer secondReplica;
+    private WireMockServer thirdReplica;
+
+    @BeforeEach
+    void startReplicas() {
+        secondReplica = new WireMockServer(wireMockConfig().dynamicPort().extensions(new ResponseTemplateTransformer(true)));
+        thirdReplica = new WireMockServer(wireMockConfig().dynamicPort().extensions(new ResponseTemplateTransformer(true)));
+        secondReplica.start();
+        thirdReplica.start();
+    }
+
+    @AfterEach
+    void stopReplicas() {
+        secondReplica.stop();
+        thirdReplica.stop();
+    }
+
+    @Test
+    void shouldSpreadCallsAcrossReplicas() {
+        //given
+        List<WireMockServer> replicas = Arrays.asList(wireMockServer, secondReplica, thirdReplica);
+        replicas.forEach(replica -> stubMovieById(replica, movieResponse().withFixedDelay(20)));
+        MovieServiceLoadBalancer loadBalancer = loadBalancer(LoadBalancingSettings.builder()
+                .latencyDecay(Duration.ofMillis(100))
+                .build(), replicas);
+        ReactiveMoviesRestClient reactiveMoviesRestClient = new ReactiveMoviesRestClient(webClient(loadBalancer), false);
+
+        //when
+        List<Movie> movies = Flux.range(0, 150)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMovieById(9), 15)
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(150, movies.size());
+        replicas.forEach(replica -> assertTrue(movieByIdRequests(replica) >= 15,
+                "replica on port " + replica.port() + " got " + movieByIdRequests(replica) + " calls"));
+    }
+
+    @Test
+    void shouldEjectFailingReplicaAndFailOver() {
+        //given
+        stubMovieById(wireMockServer, movieResponse());
+        stubMovieById(secondReplica, WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value()));
+        MovieServiceLoadBalancer loadBalancer = loadBalancer(failFastSettings(Duration.ofSeconds(30)),
+                Arrays.asList(wireMockServer, secondReplica));
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient(loadBalancer), retryPolicy());
+
+        //when
+        for (int i = 0; i < 20; i++) {
+            assertEquals(9L, moviesRestClient.retrieveMovieById(9).getMovie_id());
+        }
+
+        //then
+        assertEquals(3, movieByIdRequests(secondReplica));
+        assertTrue(loadBalancer.isEjected(baseUrl(secondReplica)));
+        assertFalse(loadBalancer.isEjected(baseUrl(wireMockServer)));
+    }
+
+    @Test
+    void shouldReadmitEjectedReplicaOnceItsEjectionExpires() throws InterruptedException {
+        //given
+        stubMovieById(wireMockServer, movieResponse());
+        stubMovieById(secondReplica, WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value()));
+        MovieServiceLoadBalancer loadBalancer = loadBalancer(failFastSettings(Duration.ofMillis(200)),
+                Arrays.asList(wireMockServer, secondReplica));
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient(loadBalancer), retryPolicy());
+        for (int i = 0; i < 20; i++) {
+            moviesRestClient.retrieveMovieById(9);
+        }
+        assertTrue(loadBalancer.isEjected(baseUrl(secondReplica)));
+
+        //when
+        stubMovieById(secondReplica, movieResponse());
+        Thread.sleep(300);
+        for (int i = 0; i < 20; i++) {
+            moviesRestClient.retrieveMovieById(9);
+        }
+
+        //then
+        assertFalse(loadBalancer.isEjected(baseUrl(secondReplica)));
+        assertTrue(movieByIdRequests(secondReplica) > 3);
+    }
+
+    @Test
+    void shouldEjectReplicaThatNeverResponds() {
+        //given
+        stubMovieById(wireMockServer, movieResponse());
+        stubMovieById(secondReplica, movieResponse().withFixedDelay(3000));
+        MovieServiceLoadBalancer loadBalancer = loadBalancer(failFastSettings(Duration.ofSeconds(30)),
+                Arrays.asList(wireMockServer, secondReplica));
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient(loadBalancer), MovieResiliencePolicy.builder()
+                .defaultTimeout(Duration.ofMillis(500))
+                .maxRetries(3)
+                .firstBackoff(Duration.ofMillis(10))
+                .build());
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            assertEquals(9L, moviesRestClient.retrieveMovieById(9).getMovie_id());
+        }
+
+        //then
+        assertTrue(loadBalancer.isEjected(baseUrl(secondReplica)));
+        assertFalse(loadBalancer.isEjected(baseUrl(wireMockServer)));
+    }
+
+    @Test
+    void shouldNotEjectAHealthyReplicaWhoseHedgedCallsLose() {
+        //given
+        stubMovieById(wireMockServer, movieResponse());
+        stubMovieById(secondReplica, movieResponse().withFixedDelay(300));
+        MovieServiceLoadBalancer loadBalancer = loadBalancer(failFastSettings(Duration.ofSeconds(30)),
+                Arrays.asList(wireMockServer, secondReplica));
+        HedgingMovieCallInterceptor hedging = new HedgingMovieCallInterceptor(HedgingSettings.builder()
+                .initialDelay(Duration.ofMillis(50))
+                .budgetRatio(1)
+                .maxBurst(20)
+                .build());
+        ReactiveMoviesRestClient reactiveMoviesRestClient =
+                new ReactiveMoviesRestClient(webClient(loadBalancer), false, Collections.singletonList(hedging));
+
+        //when
+        for (int i = 0; i < 20; i++) {
+            assertEquals(9L, reactiveMoviesRestClient.retrieveMovieById(9).block().getMovie_id());
+        }
+
+        //then
+        assertTrue(movieByIdRequests(secondReplica) >= 3,
+                "slower replica got " + movieByIdRequests(secondReplica) + " calls");
+        assertFalse(loadBalancer.isEjected(baseUrl(secondReplica)));
+    }
+
+    @Test
+    void shouldAllowPendingAcquiresForEveryReplica() {
+        //given
+        List<WireMockServer> replicas = Arrays.asList(wireMockServer, secondReplica);
+        replicas.forEach(replica -> stubMovieById(replica, movieResponse().withFixedDelay(300)));
+        MoviesWebClientSettings settings = MoviesWebClientSettings.builder()
+                .maxConnections(2)
+                .maxPendingAcquires(1)
+                .build();
+        ReactiveMoviesRestClient reactiveMoviesRestClient = MoviesWebClientFactory.reactiveMoviesRestClient(
+                Arrays.asList(baseUrl(wireMockServer), baseUrl(secondReplica)), settings, LoadBalancingSettings.defaults());
+
+        //when
+        List<Movie> movies = Flux.range(1, 6)
+                .flatMap(reactiveMoviesRestClient::retrieveMovieById)
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(6, movies.size());
+        replicas.forEach(replica -> assertEquals(3, movieByIdRequests(replica),
+                "replica on port " + replica.port() + " got " + movieByIdRequests(replica) + " calls"));
+    }
+
+    /**
+     * A short latency decay lets a replica that just failed be chosen again right away, so it reaches the ejection
+     * threshold within a few calls.
+     */
+    private static LoadBalancingSettings failFastSettings(Duration ejectionDuration) {
+        return LoadBalancingSettings.builder()
+                .consecutiveFailuresToEject(3)
+                .ejectionDuration(ejectionDuration)
+                .latencyDecay(Duration.ofMillis(1))
+                .build();
+    }
+
+    /**
+     * Enough retries that a call outlasts the failures it takes to eject a replica.
+     */
+    private static MovieResiliencePolicy retryPolicy() {
+        return MovieResiliencePolicy.builder()
+                .maxRetries(3)
+                .firstBackoff(Duration.ofMillis(10))
+                .build();
+    }
+
+    private static MovieServiceLoadBalancer loadBalancer(LoadBalancingSettings settings, List<WireMockServer> replicas) {
+        String[] baseUrls = replicas.stream().map(MovieServiceLoadBalancerTest::baseUrl).toArray(String[]::new);
+        return new MovieServiceLoadBalancer(Arrays.asList(baseUrls), settings);
+    }
+
+    private static WebClient webClient(MovieServiceLoadBalancer loadBalancer) {
+        return MoviesWebClientFactory.webClientBuilder(loadBalancer.primaryBaseUrl(), MoviesWebClientSettings.defaults())
+                .filter(loadBalancer)
+                .build();
+    }
+
+    private static void stubMovieById(WireMockServer replica, ResponseDefinitionBuilder response) {
+        replica.stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(response));
+    }
+
+    private static ResponseDefinitionBuilder movieResponse() {
+        return WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie-by-id-template.json");
+    }
+
+    private static int movieByIdRequests(WireMockServer replica) {
+        return replica.findAll(getRequestedFor(urlPathMatching("/movieservice/v1/movie/[0-9]+"))).size();
+    }
+
+    private static String baseUrl(WireMockServer replica) {
+        return String.format("http://localhost:%s", replica.port());
+    }
+}
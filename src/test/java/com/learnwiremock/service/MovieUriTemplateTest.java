@@ -0,0 +1,60 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.constants.MoviesAppConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovieUriTemplateTest {
+
+    @Test
+    void shouldExpandPathAndQueryTemplates() {
+        //when
+        String movieById = MovieUriTemplate.MOVIE_BY_ID.expand(9);
+        String moviesByYear = MovieUriTemplate.MOVIES_BY_YEAR.expand(2012);
+        String moviesByName = MovieUriTemplate.MOVIES_BY_NAME.expand("The Best Exotic Marigold Hotel");
+
+        //then
+        assertEquals("/movieservice/v1/movie/9", movieById);
+        assertEquals("/movieservice/v1/movieYear?year=2012", moviesByYear);
+        assertEquals("/movieservice/v1/movieName?movie_name=The%20Best%20Exotic%20Marigold%20Hotel", moviesByName);
+    }
+
+    @Test
+    void shouldEncodeReservedAndNonAsciiCharacters() {
+        //when
+        String encoded = MovieUriTemplate.encode("Am\u00e9lie & Co/+?#%=1~");
+
+        //then
+        assertEquals("Am%C3%A9lie%20%26%20Co%2F%2B%3F%23%25%3D1~", encoded);
+        assertSame("Avengers", MovieUriTemplate.encode("Avengers"));
+    }
+
+    @Test
+    void shouldDecodeToTheSameValuesAsSpringDoes() {
+        for (String movieName : Arrays.asList("Avengers", "Inside me", "Inside+me", "Am\u00e9lie", "50% & more", "a=b&c")) {
+            //when
+            String uri = MovieUriTemplate.MOVIES_BY_NAME.expand(movieName);
+
+            //then
+            String queryValue = UriComponentsBuilder.fromUriString(uri).build(true).getQueryParams().getFirst("movie_name");
+            assertEquals(movieName, UriUtils.decode(queryValue, "UTF-8"), uri);
+        }
+    }
+
+    @Test
+    void shouldExpandNullQueryValuesLikeUriComponentsBuilder() {
+        //when
+        String expanded = MovieUriTemplate.MOVIES_BY_NAME.expand(null);
+
+        //then
+        assertEquals(UriComponentsBuilder.fromUriString(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1)
+                .queryParam("movie_name", (Object) null).toUriString(), expanded);
+        assertThrows(IllegalArgumentException.class, () -> MovieUriTemplate.MOVIE_BY_ID.expand(null));
+        assertThrows(IllegalArgumentException.class, () -> MovieUriTemplate.path(MoviesAppConstants.ADD_MOVIE_V1));
+    }
+}
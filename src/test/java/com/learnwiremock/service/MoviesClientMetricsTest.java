@@ -0,0 +1,129 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.exception.MovieErrorResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesClientMetricsTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @Test
+    void shouldRecordCallsErrorsAndLatencies() {
+        //given
+        HistogramMoviesClientMetrics metrics = new HistogramMoviesClientMetrics();
+        MoviesRestClient moviesRestClient = MoviesWebClientFactory.moviesRestClient(baseUrl(),
+                MoviesWebClientSettings.defaults(), metrics);
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/9")).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withFixedDelay(50)
+                .withBodyFile("movie-by-id-template.json")));
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/100")).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withBodyFile("movie-by-id-not-found.json")));
+
+        //when
+        moviesRestClient.retrieveMovieById(9);
+        moviesRestClient.retrieveMovieById(9);
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+
+        //then
+        assertEquals(3, metrics.calls(MovieOperation.RETRIEVE_MOVIE_BY_ID));
+        assertEquals(1, metrics.errors(MovieOperation.RETRIEVE_MOVIE_BY_ID));
+        assertEquals(Collections.singletonMap(404, 1L), metrics.errorsByStatusCode(MovieOperation.RETRIEVE_MOVIE_BY_ID));
+        assertEquals(3, metrics.latency(MovieOperation.RETRIEVE_MOVIE_BY_ID).count());
+        assertTrue(metrics.latency(MovieOperation.RETRIEVE_MOVIE_BY_ID).valueAtPercentile(99, TimeUnit.MILLISECONDS) >= 50);
+        assertEquals(0, metrics.calls(MovieOperation.RETRIEVE_ALL_MOVIES));
+        assertEquals(3, metrics.connectionAcquireLatency().count());
+    }
+
+    @Test
+    void shouldRecordConnectionFailuresWithoutStatusCode() {
+        //given
+        HistogramMoviesClientMetrics metrics = new HistogramMoviesClientMetrics();
+        MoviesRestClient moviesRestClient = MoviesWebClientFactory.moviesRestClient("http://localhost:1",
+                MoviesWebClientSettings.defaults(), metrics);
+
+        //when
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMoviesByYear(2012));
+
+        //then
+        assertEquals(Collections.singletonMap(0, 1L), metrics.errorsByStatusCode(MovieOperation.RETRIEVE_MOVIES_BY_YEAR));
+    }
+
+    @Test
+    void shouldPublishToMicrometer() {
+        //given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MoviesRestClient moviesRestClient = MoviesWebClientFactory.moviesRestClient(baseUrl(),
+                MoviesWebClientSettings.defaults(), new MicrometerMoviesClientMetrics(registry));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+        stubFor(delete(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+
+        //when
+        moviesRestClient.retrieveAllMovies();
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.deleteMovie(1));
+
+        //then
+        assertEquals(1, registry.get(MicrometerMoviesClientMetrics.REQUESTS_METER)
+                .tags("operation", "retrieveAllMovies", "outcome", "SUCCESS").timer().count());
+        assertEquals(1, registry.get(MicrometerMoviesClientMetrics.REQUESTS_METER)
+                .tags("operation", "deleteMovie", "outcome", "ERROR", "status", "503").timer().count());
+        assertEquals(2, registry.get(MicrometerMoviesClientMetrics.CONNECTION_ACQUIRE_METER).timer().count());
+    }
+
+    @Test
+    void shouldReportPercentilesWithinBucketPrecision() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        //when
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        //then
+        assertEquals(1000, histogram.count());
+        assertEquals(500, histogram.valueAtPercentile(50, TimeUnit.MILLISECONDS), 500 * 0.07);
+        assertEquals(990, histogram.valueAtPercentile(99, TimeUnit.MILLISECONDS), 990 * 0.07);
+        assertEquals(1000, histogram.valueAtPercentile(100, TimeUnit.MILLISECONDS));
+        assertEquals(1000, histogram.max(TimeUnit.MILLISECONDS));
+    }
+
+    private String baseUrl() {
+        return String.format("http://localhost:%s", wireMockServer.port());
+    }
+}
@@ -9,8 +9,13 @@ import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
 import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.learnwiremock.catalog.MovieCatalog;
 import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.BulkMutationSummary;
 import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.dto.MovieMutation;
 import com.learnwiremock.exception.MovieErrorResponse;
 import org.apache.http.impl.conn.Wire;
 import org.junit.jupiter.api.Assertions;
@@ -25,8 +30,15 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 import sun.security.x509.OtherName;
 
 import java.net.URLEncoder;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
@@ -89,6 +101,58 @@ public class MoviesRestClientTest {
         assertTrue(movieList.size()>0);
     }
 
+    @Test
+    void shouldStreamAllMovies(){
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+
+        //when
+        List<String> movieNames;
+        try (Stream<Movie> movies = moviesRestClient.streamAllMovies()) {
+            movieNames = movies.map(Movie::getName).collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(10, movieNames.size());
+        assertEquals("Batman Begins", movieNames.get(0));
+    }
+
+    @Test
+    void shouldRetrieveMovieCatalog(){
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+
+        //when
+        MovieCatalog movieCatalog = moviesRestClient.retrieveMovieCatalog();
+
+        //then
+        assertEquals(10, movieCatalog.size());
+        assertEquals("Batman Begins", movieCatalog.name(0));
+        assertEquals(LocalDate.of(2005, 6, 15), movieCatalog.releaseDate(0));
+    }
+
+    @Test
+    void shouldConsumeAllMoviesAsTheyArrive(){
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+        AtomicInteger consumed = new AtomicInteger();
+
+        //when
+        moviesRestClient.retrieveAllMovies(movie -> consumed.incrementAndGet());
+
+        //then
+        assertEquals(10, consumed.get());
+    }
+
     @Test
     void shouldRetrieveMovieById(){
         //given
@@ -139,6 +203,112 @@ public class MoviesRestClientTest {
         Assertions.assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(movie_id));
     }
 
+    @Test
+    void shouldFindMovieByIdWithoutFailingWhenNotFound(){
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "9")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie-by-id-template.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "100")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("movie-by-id-not-found.json")));
+
+        //when
+        Optional<Movie> found = moviesRestClient.findMovieById(9);
+        Optional<Movie> missing = moviesRestClient.findMovieById(100);
+
+        //then
+        assertEquals(9L, found.get().getMovie_id());
+        assertFalse(missing.isPresent());
+    }
+
+    @Test
+    void shouldReportStatusAndBodyWithoutStackTraceForExpectedErrors(){
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "100")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("movie-by-id-not-found.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "7")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                        .withBody("Database unavailable")));
+        MoviesRestClient stackTracesForAll = new MoviesRestClient(new ReactiveMoviesRestClient(webClient, true,
+                Collections.emptyList(), MovieErrorSettings.builder().stacklessExpectedErrors(false).build()));
+
+        //when
+        MovieErrorResponse notFound = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+        MovieErrorResponse serverError = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(7));
+        MovieErrorResponse tracedNotFound = assertThrows(MovieErrorResponse.class, () -> stackTracesForAll.retrieveMovieById(100));
+
+        //then
+        assertEquals(404, notFound.getStatusCode());
+        assertEquals("Not Found", notFound.getMessage());
+        assertTrue(notFound.getResponseBodyAsString().contains("No Movie Available with the given Id"));
+        assertEquals(0, notFound.getStackTrace().length);
+        assertEquals(500, serverError.getStatusCode());
+        assertEquals("Database unavailable", serverError.getResponseBodyAsString());
+        assertNotEquals(0, serverError.getStackTrace().length);
+        assertNotEquals(0, tracedNotFound.getStackTrace().length);
+    }
+
+    @Test
+    void shouldRetrieveMoviesByIdsInInputOrder(){
+        //given
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]")))
+                        .willReturn(WireMock.aResponse()
+                                .withStatus(HttpStatus.OK.value())
+                                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .withBodyFile("movie-by-id-template.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "100")))
+                .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withBodyFile("movie-by-id-not-found.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "500")))
+                .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.INTERNAL_SERVER_ERROR.value())));
+
+        //when
+        List<MovieLookupResult> results = moviesRestClient.retrieveMoviesByIds(Arrays.asList(3, 100, 1, 500, 2), 2);
+
+        //then
+        assertEquals(Arrays.asList(3, 100, 1, 500, 2), results.stream().map(MovieLookupResult::getMovieId).collect(Collectors.toList()));
+        assertEquals(3L, results.get(0).getMovie().getMovie_id());
+        assertEquals(MovieLookupResult.Status.NOT_FOUND, results.get(1).getStatus());
+        assertEquals(MovieLookupResult.Status.FOUND, results.get(2).getStatus());
+        assertEquals(MovieLookupResult.Status.FAILED, results.get(3).getStatus());
+        assertEquals("Internal Server Error", results.get(3).getError().getMessage());
+        assertEquals(2L, results.get(4).getMovie().getMovie_id());
+    }
+
+    @Test
+    void shouldReturnPartialResultsWhenBatchTimesOut(){
+        //given
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]")))
+                        .willReturn(WireMock.aResponse()
+                                .withStatus(HttpStatus.OK.value())
+                                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .withBodyFile("movie-by-id-template.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "42")))
+                        .willReturn(WireMock.aResponse()
+                                .withStatus(HttpStatus.OK.value())
+                                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .withFixedDelay(2000)
+                                .withBodyFile("movie-by-id-template.json")));
+
+        //when
+        List<MovieLookupResult> results = moviesRestClient.retrieveMoviesByIds(Arrays.asList(1, 42, 2), 4, Duration.ofMillis(500));
+
+        //then
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isFound());
+        assertEquals(MovieLookupResult.Status.TIMED_OUT, results.get(1).getStatus());
+        assertTrue(results.get(2).isFound());
+    }
+
     @Test
     void shouldRetrieveMoviesByName() {
         //given
@@ -340,6 +510,56 @@ public class MoviesRestClientTest {
         Assertions.assertThrows(MovieErrorResponse.class, () -> moviesRestClient.deleteMovie(movieId));
     }
 
+    @Test
+    void shouldApplyBulkMutationsAndReportFailures() {
+        //given
+        Movie newMovie = new Movie(null, "The Best Exotic Marigold Hotel", 2012, "Dev Patel, Maggie Smith, Judi Dench", LocalDate.of(2012, 02,24));
+        stubFor(post(urlEqualTo(MoviesAppConstants.ADD_MOVIE_V1))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("add-movie.json")));
+        stubFor(put(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("edited-movie.json")));
+        stubFor(put(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "100")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("movie-by-id-not-found.json")));
+        stubFor(delete(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .inScenario("flaky delete")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willSetStateTo("recovered")
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+        stubFor(delete(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .inScenario("flaky delete")
+                .whenScenarioStateIs("recovered")
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withBody("Movie deleted successfully")));
+        BulkMutationSettings settings = BulkMutationSettings.builder().window(4).firstBackoff(Duration.ofMillis(10)).build();
+
+        //when
+        BulkMutationSummary summary = moviesRestClient.applyMutations(Stream.of(
+                MovieMutation.add(newMovie),
+                MovieMutation.edit(11, new Movie(null, null, null, "Hugh Laurie", null)),
+                MovieMutation.edit(100, new Movie(null, null, null, "Morgan Freeman", null)),
+                MovieMutation.delete(7)), settings);
+
+        //then
+        assertEquals(3, summary.getSucceeded());
+        assertEquals(1, summary.getFailed());
+        BulkMutationSummary.Failure failure = summary.getFailures().get(0);
+        assertEquals(100, failure.getMutation().getMovieId());
+        assertEquals(HttpStatus.NOT_FOUND.value(), failure.getStatusCode());
+        assertEquals("Not Found", failure.getStatusText());
+        verify(2, deleteRequestedFor(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "7"))));
+        verify(1, putRequestedFor(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "100"))));
+    }
+
     @Test
     void shouldDeleteMovieByName() {
         //given
@@ -0,0 +1,210 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.exception.MovieErrorResponse;
+import com.learnwiremock.exception.MovieServiceBulkheadFullException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesWebClientFactoryTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @Test
+    void shouldRetrieveGzippedMoviesWithDefaultSettings() {
+        //given
+        MoviesRestClient moviesRestClient = MoviesWebClientFactory.moviesRestClient(baseUrl());
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+
+        //when
+        List<Movie> movies = moviesRestClient.retrieveAllMovies();
+
+        //then
+        assertEquals(10, movies.size());
+        verify(getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1))
+                .withHeader(HttpHeaders.ACCEPT_ENCODING, containing("gzip")));
+    }
+
+    @Test
+    void shouldFailWhenReadTimeoutElapses() {
+        //given
+        MoviesWebClientSettings settings = MoviesWebClientSettings.builder()
+                .readTimeout(Duration.ofMillis(200))
+                .build();
+        MoviesRestClient moviesRestClient = MoviesWebClientFactory.moviesRestClient(baseUrl(), settings);
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(1000)
+                        .withBodyFile("movie-by-id.json")));
+
+        //when
+        MovieErrorResponse error = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(1));
+
+        //then
+        assertEquals(0, error.getStatusCode());
+    }
+
+    @Test
+    void shouldRejectRequestsBeyondThePendingAcquireLimit() {
+        //given
+        MoviesWebClientSettings settings = MoviesWebClientSettings.builder()
+                .maxConnections(2)
+                .maxPendingAcquires(1)
+                .build();
+        ReactiveMoviesRestClient reactiveMoviesRestClient = new ReactiveMoviesRestClient(
+                MoviesWebClientFactory.webClient(baseUrl(), settings), false);
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(300)
+                        .withBodyFile("movie-by-id.json")));
+
+        //when
+        List<Object> outcomes = Flux.range(0, 5)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMovieById(1)
+                        .cast(Object.class)
+                        .onErrorResume(MovieErrorResponse.class, Mono::just))
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(3, outcomes.stream().filter(Movie.class::isInstance).count());
+        assertEquals(2, outcomes.stream().filter(MovieServiceBulkheadFullException.class::isInstance).count());
+    }
+
+    @Test
+    void shouldNeitherRetryNorCountPendingAcquireRejectionsInTheResilienceInterceptor() {
+        //given
+        MoviesWebClientSettings settings = MoviesWebClientSettings.builder()
+                .maxConnections(2)
+                .maxPendingAcquires(1)
+                .build();
+        ResilienceMovieCallInterceptor resilience = new ResilienceMovieCallInterceptor(MovieResiliencePolicy.builder()
+                .maxRetries(3)
+                .firstBackoff(Duration.ofMillis(10))
+                .circuitBreakerWindow(5)
+                .circuitBreakerFailureRate(0.4)
+                .build());
+        ReactiveMoviesRestClient reactiveMoviesRestClient = new ReactiveMoviesRestClient(
+                MoviesWebClientFactory.webClient(baseUrl(), settings), false, Collections.singletonList(resilience));
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(300)
+                        .withBodyFile("movie-by-id.json")));
+
+        //when
+        List<Object> outcomes = Flux.range(0, 5)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMovieById(1)
+                        .cast(Object.class)
+                        .onErrorResume(MovieErrorResponse.class, Mono::just))
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(2, outcomes.stream().filter(MovieServiceBulkheadFullException.class::isInstance).count());
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.circuitState());
+        verify(3, getRequestedFor(urlEqualTo("/movieservice/v1/movie/1")));
+    }
+
+    @Test
+    void shouldHoldThePendingAcquireSlotUntilTheBodyHasBeenRead() throws InterruptedException {
+        //given
+        MoviesWebClientSettings settings = MoviesWebClientSettings.builder()
+                .maxConnections(1)
+                .maxPendingAcquires(0)
+                .build();
+        ReactiveMoviesRestClient reactiveMoviesRestClient = new ReactiveMoviesRestClient(
+                MoviesWebClientFactory.webClient(baseUrl(), settings), false);
+        stubFor(get(urlEqualTo("/movieservice/v1/movie/1"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withChunkedDribbleDelay(5, 1000)
+                        .withBodyFile("movie-by-id.json")));
+        stubFor(get(urlEqualTo("/movieservice/v1/movie/2"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie-by-id.json")));
+        Mono<Movie> streamingBody = reactiveMoviesRestClient.retrieveMovieById(1).cache();
+        streamingBody.subscribe();
+        Thread.sleep(300);
+
+        //when, then
+        assertThrows(MovieServiceBulkheadFullException.class, () -> reactiveMoviesRestClient.retrieveMovieById(2).block());
+        assertEquals("Batman Begins", streamingBody.block().getName());
+        assertEquals("Batman Begins", reactiveMoviesRestClient.retrieveMovieById(2).block().getName());
+    }
+
+    @Test
+    void shouldShareConnectionPoolsBetweenClientsWithTheSamePoolSettings() {
+        //given
+        MoviesWebClientSettings settings = MoviesWebClientSettings.builder().maxConnections(7).build();
+        MoviesWebClientSettings sameSettings = MoviesWebClientSettings.builder().maxConnections(7).build();
+        MoviesWebClientSettings largerPool = MoviesWebClientSettings.builder().maxConnections(8).build();
+
+        //when, then
+        assertSame(MoviesWebClientFactory.connectionProvider(settings), MoviesWebClientFactory.connectionProvider(sameSettings));
+        assertNotSame(MoviesWebClientFactory.connectionProvider(settings), MoviesWebClientFactory.connectionProvider(largerPool));
+    }
+
+    @Test
+    void shouldFallBackToHttp11WhenServerDoesNotUpgrade() {
+        //given
+        MoviesWebClientSettings settings = MoviesWebClientSettings.builder().http2(true).build();
+        MoviesRestClient moviesRestClient = MoviesWebClientFactory.moviesRestClient(baseUrl(), settings);
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie-by-id.json")));
+
+        //when
+        Movie movie = moviesRestClient.retrieveMovieById(1);
+
+        //then
+        assertEquals("Batman Begins", movie.getName());
+    }
+
+    private String baseUrl() {
+        return String.format("http://localhost:%s", wireMockServer.port());
+    }
+}
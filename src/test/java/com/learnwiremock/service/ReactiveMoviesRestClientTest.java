@@ -0,0 +1,394 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.catalog.MovieCatalog;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.exception.MovieErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class ReactiveMoviesRestClientTest {
+
+    ReactiveMoviesRestClient reactiveMoviesRestClient;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @BeforeEach
+    void setUp() {
+        reactiveMoviesRestClient = new ReactiveMoviesRestClient(WebClient.create(baseUrl()));
+    }
+
+    @Test
+    void shouldStreamAllMovies() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+
+        //when, then
+        StepVerifier.create(reactiveMoviesRestClient.retrieveAllMovies())
+                .expectNextMatches(movie -> movie.getName().equals("Batman Begins"))
+                .expectNextCount(9)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRetrieveMovieById() {
+        //given
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie-by-id-template.json")));
+
+        //when, then
+        StepVerifier.create(reactiveMoviesRestClient.retrieveMovieById(9))
+                .expectNextMatches(movie -> movie.getMovie_id() == 9L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldMapNotFoundToMovieErrorResponse() {
+        //given
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("movie-by-id-not-found.json")));
+
+        //when, then
+        StepVerifier.create(reactiveMoviesRestClient.retrieveMovieById(100))
+                .expectErrorMatches(e -> e instanceof MovieErrorResponse && e.getMessage().equals("Not Found"))
+                .verify();
+    }
+
+    @Test
+    void shouldMapConnectionFailureToMovieErrorResponse() {
+        //given
+        ReactiveMoviesRestClient unreachableClient = new ReactiveMoviesRestClient(WebClient.create("http://localhost:1"));
+
+        //when, then
+        StepVerifier.create(unreachableClient.retrieveMoviesByYear(2012))
+                .expectError(MovieErrorResponse.class)
+                .verify();
+    }
+
+    @Test
+    void shouldDeleteMovieByName() {
+        //given
+        stubFor(delete(urlEqualTo(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1 + "?movie_name=" + "The%20Avengers"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())));
+
+        //when, then
+        StepVerifier.create(reactiveMoviesRestClient.deleteMovieByName("The Avengers"))
+                .expectNext("Movie deleted successfully")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCoalesceConcurrentLookupsForTheSameId() {
+        //given
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(300)
+                        .withBodyFile("movie-by-id-template.json")));
+
+        //when
+        List<Movie> movies = Flux.range(0, 20)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMovieById(9))
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(20, movies.size());
+        assertTrue(movies.stream().allMatch(movie -> movie == movies.get(0)));
+        assertEquals(0, reactiveMoviesRestClient.inFlightLookups());
+        verify(1, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldStartAFreshExchangeForLookupsMadeOnceTheResultIsSignalled() {
+        //given
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie-by-id-template.json")));
+
+        //when
+        int inFlightWhenSignalled = reactiveMoviesRestClient.retrieveMovieById(9)
+                .map(movie -> reactiveMoviesRestClient.inFlightLookups())
+                .block();
+        reactiveMoviesRestClient.retrieveMovieById(9).block();
+
+        //then
+        assertEquals(0, inFlightWhenSignalled);
+        verify(2, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldCancelTheCoalescedExchangeOnceEverySubscriberHasCancelled() throws InterruptedException {
+        //given
+        AtomicInteger cancelledExchanges = new AtomicInteger();
+        reactiveMoviesRestClient = new ReactiveMoviesRestClient(WebClient.create(baseUrl()), true,
+                Collections.singletonList(cancellationCounter(cancelledExchanges)));
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(2000)
+                        .withBodyFile("movie-by-id-template.json")));
+        Disposable first = reactiveMoviesRestClient.retrieveMovieById(9).subscribe();
+        Disposable second = reactiveMoviesRestClient.retrieveMovieById(9).subscribe();
+        Thread.sleep(200);
+
+        //when
+        first.dispose();
+        int cancelledWhileSecondWaits = cancelledExchanges.get();
+        int inFlightWhileSecondWaits = reactiveMoviesRestClient.inFlightLookups();
+        second.dispose();
+
+        //then
+        assertEquals(0, cancelledWhileSecondWaits);
+        assertEquals(1, inFlightWhileSecondWaits);
+        assertEquals(1, cancelledExchanges.get());
+        assertEquals(0, reactiveMoviesRestClient.inFlightLookups());
+        verify(1, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldCancelLookupsStillOutstandingWhenTheBatchTimesOut() {
+        //given
+        AtomicInteger cancelledExchanges = new AtomicInteger();
+        reactiveMoviesRestClient = new ReactiveMoviesRestClient(WebClient.create(baseUrl()), true,
+                Collections.singletonList(cancellationCounter(cancelledExchanges)));
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie-by-id-template.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "42")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(2000)
+                        .withBodyFile("movie-by-id-template.json")));
+
+        //when
+        List<MovieLookupResult> results = reactiveMoviesRestClient
+                .retrieveMoviesByIds(Arrays.asList(1, 42, 2), 4, Duration.ofMillis(500))
+                .block();
+
+        //then
+        assertEquals(MovieLookupResult.Status.TIMED_OUT, results.get(1).getStatus());
+        assertEquals(1, cancelledExchanges.get());
+        assertEquals(0, reactiveMoviesRestClient.inFlightLookups());
+    }
+
+    @Test
+    void shouldShareTheSameErrorWithCoalescedYearLookups() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withFixedDelay(300)
+                        .withBodyFile("movie-by-year-not-found.json")));
+
+        //when
+        List<Throwable> errors = Flux.range(0, 5)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMoviesByYear(3000)
+                        .map(Throwable.class::cast)
+                        .onErrorResume(Mono::just))
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(5, errors.size());
+        assertTrue(errors.stream().allMatch(e -> e instanceof MovieErrorResponse && e == errors.get(0)));
+        verify(1, getRequestedFor(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1)));
+    }
+
+    @Test
+    void shouldIssueOneRequestPerCallWhenCoalescingIsDisabled() {
+        //given
+        reactiveMoviesRestClient = new ReactiveMoviesRestClient(WebClient.create(baseUrl()), false);
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(100)
+                        .withBodyFile("movie-by-id-template.json")));
+
+        //when
+        Flux.range(0, 3)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMovieById(9))
+                .blockLast();
+
+        //then
+        verify(3, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+    }
+
+    @Test
+    void shouldStreamAllMoviesWithoutRevalidating() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withHeader(HttpHeaders.ETAG, "\"v1\"")
+                .withBodyFile("all-movies.json")));
+        reactiveMoviesRestClient.retrieveMovieCatalog().block();
+        reactiveMoviesRestClient.retrieveAllMovies().collectList().block();
+
+        //when
+        List<Movie> movies = reactiveMoviesRestClient.retrieveAllMovies().collectList().block();
+
+        //then
+        assertEquals(10, movies.size());
+        verify(3, getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).withHeader(HttpHeaders.IF_NONE_MATCH, absent()));
+    }
+
+    @Test
+    void shouldReturnTheRetainedCatalogWhenETagIsNotModified() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withHeader(HttpHeaders.ETAG, "\"v1\"")
+                .withBodyFile("all-movies.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\""))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.NOT_MODIFIED.value())));
+        MovieCatalog catalog = reactiveMoviesRestClient.retrieveMovieCatalog().block();
+
+        //when
+        MovieCatalog revalidatedCatalog = reactiveMoviesRestClient.retrieveMovieCatalog().block();
+
+        //then
+        assertEquals(10, revalidatedCatalog.size());
+        assertSame(catalog, revalidatedCatalog);
+        verify(1, getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).withHeader(HttpHeaders.IF_NONE_MATCH, absent()));
+        verify(1, getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\"")));
+    }
+
+    @Test
+    void shouldReuseCatalogWhenNotModifiedSince() {
+        //given
+        String lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withHeader(HttpHeaders.LAST_MODIFIED, lastModified)
+                .withBodyFile("all-movies.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1))
+                .withHeader(HttpHeaders.IF_MODIFIED_SINCE, equalTo(lastModified))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.NOT_MODIFIED.value())));
+        MovieCatalog catalog = reactiveMoviesRestClient.retrieveMovieCatalog().block();
+
+        //when
+        MovieCatalog revalidatedCatalog = reactiveMoviesRestClient.retrieveMovieCatalog().block();
+
+        //then
+        assertEquals(10, catalog.size());
+        assertSame(catalog, revalidatedCatalog);
+        verify(2, getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)));
+    }
+
+    @Test
+    void shouldReplaceTheRememberedCatalogWhenModified() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withHeader(HttpHeaders.ETAG, "\"v1\"")
+                .withBodyFile("all-movies.json")));
+        reactiveMoviesRestClient.retrieveMovieCatalog().block();
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\""))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.ETAG, "\"v2\"")
+                        .withBody("[{\"movie_id\":2,\"name\":\"Dark Knight\",\"year\":2008}]")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v2\""))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.NOT_MODIFIED.value())));
+
+        //when
+        MovieCatalog modified = reactiveMoviesRestClient.retrieveMovieCatalog().block();
+        MovieCatalog revalidated = reactiveMoviesRestClient.retrieveMovieCatalog().block();
+
+        //then
+        assertEquals(1, modified.size());
+        assertSame(modified, revalidated);
+    }
+
+    @Test
+    void shouldMapAllMoviesErrorsToMovieErrorResponse() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .withBody("try again later")));
+
+        //when, then
+        StepVerifier.create(reactiveMoviesRestClient.retrieveAllMovies())
+                .expectErrorMatches(e -> e instanceof MovieErrorResponse
+                        && ((MovieErrorResponse) e).getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                        && e.getMessage().equals("Service Unavailable"))
+                .verify();
+    }
+
+    private String baseUrl() {
+        return String.format("http://localhost:%s", wireMockServer.port());
+    }
+
+    /**
+     * Counts the physical exchanges that were cancelled; interceptors see each exchange once, beneath coalescing.
+     */
+    private static MovieCallInterceptor cancellationCounter(AtomicInteger cancelledExchanges) {
+        return new MovieCallInterceptor() {
+            @Override
+            public <T> Mono<T> interceptMono(MovieOperation operation, Mono<T> call) {
+                return call.doOnCancel(cancelledExchanges::incrementAndGet);
+            }
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.catalog.MovieCatalog;
+import com.learnwiremock.catalog.MovieCatalogSnapshot;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.exception.MovieErrorResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class ReplicatedMoviesRestClientTest {
+
+    ReplicatedMoviesRestClient replicatedMoviesRestClient;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @BeforeEach
+    void setUp() {
+        replicatedMoviesRestClient = new ReplicatedMoviesRestClient(webClient(), MovieReplicaSettings.defaults());
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicatedMoviesRestClient.close();
+    }
+
+    @Test
+    void shouldAnswerLookupsFromOneCatalogLoad() {
+        //when
+        Movie movie = replicatedMoviesRestClient.retrieveMovieById(9);
+        List<Movie> avengers = replicatedMoviesRestClient.retrieveMoviesByName("Avengers");
+        List<Movie> moviesOf2012 = replicatedMoviesRestClient.retrieveMoviesByYear(2012);
+        List<MovieLookupResult> lookups = replicatedMoviesRestClient.retrieveMoviesByIds(Arrays.asList(1, 100));
+
+        //then
+        assertEquals("The Imitation Game", movie.getName());
+        assertEquals(4, avengers.size());
+        assertEquals(2, moviesOf2012.size());
+        assertTrue(lookups.get(0).isFound());
+        assertEquals(MovieLookupResult.Status.NOT_FOUND, lookups.get(1).getStatus());
+        verify(1, getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)));
+        verify(1, getRequestedFor(anyUrl()));
+    }
+
+    @Test
+    void shouldThrowNotFoundLikeTheMovieService() {
+        //when
+        MovieErrorResponse byId = assertThrows(MovieErrorResponse.class, () -> replicatedMoviesRestClient.retrieveMovieById(100));
+        MovieErrorResponse byName = assertThrows(MovieErrorResponse.class, () -> replicatedMoviesRestClient.retrieveMoviesByName("ABC"));
+        MovieErrorResponse byYear = assertThrows(MovieErrorResponse.class, () -> replicatedMoviesRestClient.retrieveMoviesByYear(1950));
+
+        //then
+        assertEquals("Not Found", byId.getMessage());
+        assertTrue(byId.isNotFound());
+        assertTrue(byName.isNotFound());
+        assertTrue(byYear.isNotFound());
+    }
+
+    @Test
+    void shouldRefreshAfterMutation() throws InterruptedException {
+        //given
+        replicatedMoviesRestClient.retrieveMovieById(1);
+        stubFor(delete(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK.value()).withBody("Movie deleted successfully")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBody("[{\"movie_id\":2,\"name\":\"Dark Knight\",\"year\":2008}]")));
+
+        //when
+        replicatedMoviesRestClient.deleteMovie(1);
+
+        //then
+        long deadline = System.currentTimeMillis() + 2000;
+        while (isFound(1) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(isFound(1));
+        verify(2, getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)));
+    }
+
+    @Test
+    void shouldRefreshPeriodicallyUntilClosed() throws InterruptedException {
+        //given
+        replicatedMoviesRestClient = new ReplicatedMoviesRestClient(webClient(), MovieReplicaSettings.builder()
+                .refreshInterval(Duration.ofMillis(100))
+                .build());
+
+        //when
+        Thread.sleep(450);
+        replicatedMoviesRestClient.close();
+        int refreshes = findAll(getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1))).size();
+        Thread.sleep(300);
+
+        //then
+        assertTrue(refreshes >= 3);
+        verify(refreshes, getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)));
+    }
+
+    @Test
+    void shouldStartFromSnapshotAndReconcileInTheBackground(@TempDir Path directory) throws IOException, InterruptedException {
+        //given
+        Path snapshot = directory.resolve("movies.snapshot");
+        MovieCatalogSnapshot.write(MovieCatalog.of(Arrays.asList(new Movie(42L, "Snapshot Only", 1999, null, null))), snapshot);
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")
+                .withFixedDelay(300)));
+
+        //when
+        replicatedMoviesRestClient = new ReplicatedMoviesRestClient(webClient(), MovieReplicaSettings.builder()
+                .snapshotPath(snapshot)
+                .build());
+        Movie fromSnapshot = replicatedMoviesRestClient.retrieveMovieById(42);
+
+        //then
+        assertEquals("Snapshot Only", fromSnapshot.getName());
+        long deadline = System.currentTimeMillis() + 3000;
+        while (isFound(42) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("The Imitation Game", replicatedMoviesRestClient.retrieveMovieById(9).getName());
+        while (MovieCatalogSnapshot.read(snapshot).size() != 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(10, MovieCatalogSnapshot.read(snapshot).size());
+        verify(1, getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)));
+    }
+
+    @Test
+    void shouldRevalidateOnRefresh() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withHeader(HttpHeaders.ETAG, "\"v1\"")
+                .withBodyFile("all-movies.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\""))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.NOT_MODIFIED.value())));
+        replicatedMoviesRestClient.retrieveMovieById(9);
+
+        //when
+        replicatedMoviesRestClient.refresh();
+        Movie movie = replicatedMoviesRestClient.retrieveMovieById(9);
+
+        //then
+        assertEquals("The Imitation Game", movie.getName());
+        verify(1, getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\"")));
+    }
+
+    private boolean isFound(Integer movieId) {
+        try {
+            replicatedMoviesRestClient.retrieveMovieById(movieId);
+            return true;
+        } catch (MovieErrorResponse e) {
+            return false;
+        }
+    }
+
+    private WebClient webClient() {
+        return WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+    }
+}
@@ -0,0 +1,221 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.BulkMutationSummary;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieMutation;
+import com.learnwiremock.exception.MovieErrorResponse;
+import com.learnwiremock.exception.MovieServiceBulkheadFullException;
+import com.learnwiremock.exception.MovieServiceCircuitOpenException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class ResilienceMovieCallInterceptorTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @Test
+    void shouldFailCallsThatExceedTheirDeadline() {
+        //given
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient(), MovieResiliencePolicy.builder()
+                .operationTimeout(MovieOperation.RETRIEVE_MOVIE_BY_ID, Duration.ofMillis(200))
+                .maxRetries(0)
+                .build());
+        stubMovieById(WireMock.aResponse().withFixedDelay(2000));
+
+        //when
+        long start = System.nanoTime();
+        MovieErrorResponse error = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(9));
+
+        //then
+        assertTrue(error.getCause() instanceof TimeoutException);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+    }
+
+    @Test
+    void shouldRetryIdempotentCallsOnTransientErrors() {
+        //given
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient(), MovieResiliencePolicy.builder()
+                .firstBackoff(Duration.ofMillis(10))
+                .build());
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1))
+                .inScenario("flaky year lookup")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willSetStateTo("recovered")
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.BAD_GATEWAY.value())));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1))
+                .inScenario("flaky year lookup")
+                .whenScenarioStateIs("recovered")
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movies-by-year-template.json")));
+
+        //when
+        List<Movie> movies = moviesRestClient.retrieveMoviesByYear(2012);
+
+        //then
+        assertFalse(movies.isEmpty());
+        verify(2, getRequestedFor(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1)));
+    }
+
+    @Test
+    void shouldNotRetryAddMovie() {
+        //given
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient(), MovieResiliencePolicy.builder()
+                .firstBackoff(Duration.ofMillis(10))
+                .build());
+        stubFor(post(urlPathEqualTo(MoviesAppConstants.ADD_MOVIE_V1))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+
+        //when
+        assertThrows(MovieErrorResponse.class,
+                () -> moviesRestClient.addMovie(new Movie(null, "Toys", 2019, "Tom Hanks", LocalDate.of(2019, 6, 20))));
+
+        //then
+        verify(1, postRequestedFor(urlPathEqualTo(MoviesAppConstants.ADD_MOVIE_V1)));
+    }
+
+    @Test
+    void shouldOpenCircuitAfterRepeatedFailuresAndCloseOnceServiceRecovers() throws InterruptedException {
+        //given
+        ResilienceMovieCallInterceptor interceptor = new ResilienceMovieCallInterceptor(MovieResiliencePolicy.builder()
+                .maxRetries(0)
+                .circuitBreakerWindow(4)
+                .circuitBreakerOpenDuration(Duration.ofMillis(200))
+                .circuitBreakerHalfOpenCalls(1)
+                .build());
+        MoviesRestClient moviesRestClient = new MoviesRestClient(
+                new ReactiveMoviesRestClient(webClient(), true, Collections.singletonList(interceptor)));
+        stubMovieById(WireMock.aResponse().withStatus(HttpStatus.INTERNAL_SERVER_ERROR.value()));
+
+        //when
+        for (int i = 0; i < 4; i++) {
+            assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(9));
+        }
+        assertThrows(MovieServiceCircuitOpenException.class, () -> moviesRestClient.retrieveMovieById(9));
+        verify(4, getRequestedFor(urlEqualTo("/movieservice/v1/movie/9")));
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.circuitState());
+
+        Thread.sleep(250);
+        stubMovieById(WireMock.aResponse()
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie-by-id-template.json"));
+        Movie movie = moviesRestClient.retrieveMovieById(9);
+
+        //then
+        assertEquals(9L, movie.getMovie_id());
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.circuitState());
+    }
+
+    @Test
+    void shouldRejectCallsBeyondTheBulkheadLimit() {
+        //given
+        ResilienceMovieCallInterceptor interceptor = new ResilienceMovieCallInterceptor(MovieResiliencePolicy.builder()
+                .maxConcurrentCalls(2)
+                .build());
+        ReactiveMoviesRestClient reactiveMoviesRestClient =
+                new ReactiveMoviesRestClient(webClient(), false, Collections.singletonList(interceptor));
+        stubMovieById(WireMock.aResponse()
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withFixedDelay(300)
+                .withBodyFile("movie-by-id-template.json"));
+
+        //when
+        List<Object> results = Flux.range(0, 3)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMovieById(9)
+                        .cast(Object.class)
+                        .onErrorResume(Mono::just))
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(1, results.stream().filter(MovieServiceBulkheadFullException.class::isInstance).count());
+        assertEquals(2, results.stream().filter(Movie.class::isInstance).count());
+        assertEquals(0, interceptor.inFlightCalls());
+    }
+
+    @Test
+    void shouldFreeTheBulkheadSlotBeforeTheCallerSeesTheResult() {
+        //given
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient(), MovieResiliencePolicy.builder()
+                .maxConcurrentCalls(1)
+                .build());
+        stubMovieById(WireMock.aResponse()
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie-by-id-template.json"));
+
+        //when
+        for (int i = 0; i < 200; i++) {
+            //then
+            assertEquals(9L, moviesRestClient.retrieveMovieById(9).getMovie_id());
+        }
+    }
+
+    @Test
+    void shouldLeaveRetriesOfBulkEditsToTheInterceptor() {
+        //given
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient(), MovieResiliencePolicy.builder()
+                .maxRetries(2)
+                .firstBackoff(Duration.ofMillis(10))
+                .build());
+        stubFor(put(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+        BulkMutationSettings settings = BulkMutationSettings.builder()
+                .maxRetries(3)
+                .firstBackoff(Duration.ofMillis(10))
+                .build();
+
+        //when
+        BulkMutationSummary summary = moviesRestClient.applyMutations(
+                Stream.of(MovieMutation.edit(11, new Movie(null, null, null, "Hugh Laurie", null))), settings);
+
+        //then
+        assertEquals(1, summary.getFailed());
+        verify(3, putRequestedFor(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "11"))));
+    }
+
+    private void stubMovieById(ResponseDefinitionBuilder response) {
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(response));
+    }
+
+    private WebClient webClient() {
+        return WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+    }
+}
@@ -0,0 +1,231 @@
+package com.learnwiremock.transport;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.constants.MoviesAppConstants;
+import com.learnwiremock.dto.Movie;
+import com.learnwiremock.dto.MovieLookupResult;
+import com.learnwiremock.exception.MovieErrorResponse;
+import com.learnwiremock.service.MovieOperation;
+import com.learnwiremock.service.MovieResiliencePolicy;
+import com.learnwiremock.service.MoviesRestClient;
+import com.learnwiremock.service.ResilienceMovieCallInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesTransportTest {
+
+    List<MoviesTransport> transports;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @BeforeEach
+    void setUp() {
+        String baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        transports = Arrays.asList(new WebClientMoviesTransport(WebClient.create(baseUrl)), new NettyMoviesTransport(baseUrl));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (MoviesTransport transport : transports) {
+            transport.close();
+        }
+    }
+
+    @Test
+    void shouldRetrieveMoviesOnEveryTransport() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie-by-id-template.json")));
+        stubFor(get(urlEqualTo(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1 + "?movie_name=Avengers"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movies-by-name-avengers.json")));
+
+        for (MoviesTransport transport : transports) {
+            //when
+            MoviesRestClient moviesRestClient = new MoviesRestClient(transport);
+
+            //then
+            assertEquals(10, moviesRestClient.retrieveAllMovies().size(), transport.getClass().getSimpleName());
+            assertEquals(9L, moviesRestClient.retrieveMovieById(9).getMovie_id());
+            assertEquals(4, moviesRestClient.retrieveMoviesByName("Avengers").size());
+        }
+    }
+
+    @Test
+    void shouldSendMutationsOnEveryTransport() {
+        //given
+        Movie newMovie = new Movie(null, "The Best Exotic Marigold Hotel", 2012, "Dev Patel, Maggie Smith, Judi Dench", LocalDate.of(2012, 2, 24));
+        stubFor(post(urlEqualTo(MoviesAppConstants.ADD_MOVIE_V1))
+                .withHeader(HttpHeaders.CONTENT_TYPE, containing(MediaType.APPLICATION_JSON_VALUE))
+                .withRequestBody(matchingJsonPath("$.name", equalTo("The Best Exotic Marigold Hotel")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("add-movie.json")));
+        stubFor(delete(urlEqualTo(MoviesAppConstants.MOVIES_BY_NAME_QUERY_PARAM_V1 + "?movie_name=The%20Best%20Exotic%20Marigold%20Hotel"))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK.value())));
+
+        for (MoviesTransport transport : transports) {
+            //when
+            MoviesRestClient moviesRestClient = new MoviesRestClient(transport);
+            Movie addedMovie = moviesRestClient.addMovie(newMovie);
+            String deleted = moviesRestClient.deleteMovieByName("The Best Exotic Marigold Hotel");
+
+            //then
+            assertNotNull(addedMovie.getMovie_id(), transport.getClass().getSimpleName());
+            assertEquals("Movie deleted successfully", deleted);
+        }
+        verify(transports.size(), postRequestedFor(urlEqualTo(MoviesAppConstants.ADD_MOVIE_V1)));
+    }
+
+    @Test
+    void shouldMapErrorsTheSameOnEveryTransport() throws IOException {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "100")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("movie-by-id-not-found.json")));
+        String unreachableUrl = "http://localhost:1";
+
+        try (NettyMoviesTransport unreachableNetty = new NettyMoviesTransport(unreachableUrl, 1, Duration.ofSeconds(1))) {
+            List<MoviesTransport> unreachable = Arrays.asList(
+                    new WebClientMoviesTransport(WebClient.create(unreachableUrl)), unreachableNetty);
+            for (int index = 0; index < transports.size(); index++) {
+                //when
+                MoviesRestClient moviesRestClient = new MoviesRestClient(transports.get(index));
+                MoviesRestClient unreachableClient = new MoviesRestClient(unreachable.get(index));
+                MovieErrorResponse notFound = assertThrows(MovieErrorResponse.class,
+                        () -> moviesRestClient.retrieveMovieById(100));
+                MovieErrorResponse connectionFailure = assertThrows(MovieErrorResponse.class,
+                        () -> unreachableClient.retrieveMovieById(1));
+
+                //then
+                assertTrue(notFound.isNotFound());
+                assertFalse(moviesRestClient.findMovieById(100).isPresent());
+                assertEquals("Not Found", notFound.getMessage());
+                assertEquals(0, connectionFailure.getStatusCode());
+            }
+        }
+    }
+
+    @Test
+    void shouldFanOutBatchLookupsOnABoundedSharedPool() {
+        //given
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(20)
+                        .withBodyFile("movie-by-id-template.json")));
+        List<Integer> movieIds = IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList());
+
+        for (MoviesTransport transport : transports) {
+            //when
+            MoviesRestClient moviesRestClient = new MoviesRestClient(transport);
+            List<MovieLookupResult> first = moviesRestClient.retrieveMoviesByIds(movieIds, 100);
+            List<MovieLookupResult> second = moviesRestClient.retrieveMoviesByIds(movieIds, 100);
+
+            //then
+            assertTrue(first.stream().allMatch(MovieLookupResult::isFound), transport.getClass().getSimpleName());
+            assertTrue(second.stream().allMatch(MovieLookupResult::isFound), transport.getClass().getSimpleName());
+        }
+        long fanOutThreads = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("movies-fan-out-"))
+                .count();
+        assertTrue(fanOutThreads > 0 && fanOutThreads <= 64, fanOutThreads + " fan-out threads");
+    }
+
+    @Test
+    void shouldPassTransportCallsThroughTheClientsInterceptors() {
+        //given
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_ALL_MOVIES_V1)).willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1))
+                .inScenario("flaky year lookup")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willSetStateTo("recovered")
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.BAD_GATEWAY.value())));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1))
+                .inScenario("flaky year lookup")
+                .whenScenarioStateIs("recovered")
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movies-by-year-template.json")));
+        stubFor(get(urlPathMatching(MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1.replace("{id}", "[0-9]+")))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withFixedDelay(2000)
+                        .withBodyFile("movie-by-id-template.json")));
+        MovieResiliencePolicy policy = MovieResiliencePolicy.builder()
+                .operationTimeout(MovieOperation.RETRIEVE_MOVIE_BY_ID, Duration.ofMillis(200))
+                .maxRetries(1)
+                .firstBackoff(Duration.ofMillis(10))
+                .build();
+
+        for (MoviesTransport transport : transports) {
+            //when
+            WireMock.resetAllScenarios();
+            MoviesRestClient moviesRestClient = new MoviesRestClient(transport,
+                    Collections.singletonList(new ResilienceMovieCallInterceptor(policy)));
+            List<Movie> movies = moviesRestClient.retrieveMoviesByYear(2012);
+            long start = System.nanoTime();
+            MovieErrorResponse timedOut = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(9));
+
+            //then
+            assertFalse(movies.isEmpty(), transport.getClass().getSimpleName());
+            assertTrue(timedOut.getCause() instanceof TimeoutException);
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+            assertEquals(10, moviesRestClient.retrieveAllMovies().size());
+        }
+        verify(2 * transports.size(), getRequestedFor(urlPathEqualTo(MoviesAppConstants.MOVIES_BY_YEAR_QUERY_PARAM_V1)));
+    }
+}